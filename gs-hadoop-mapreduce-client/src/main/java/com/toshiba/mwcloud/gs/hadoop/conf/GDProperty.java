@@ -18,6 +18,8 @@ package com.toshiba.mwcloud.gs.hadoop.conf;
 
 import org.apache.hadoop.conf.Configuration;
 
+import com.toshiba.mwcloud.gs.GSType;
+
 /**
  * <div lang="ja">
  * GridDBコネクタで用いるプロパティに対応した列挙型です。<br/>
@@ -1086,11 +1088,19 @@ public enum GDProperty {
     /**
      * <div lang="ja">
      * プロパティgs.input.fetch.sizeに対応した定数です。<br/>
-     * コンテナ当たりに一括して入力する最大ロウ数を指定するための定数です。デフォルト値は0で、全ロウデータを一括入力します。
+     * コンテナ当たりに一括して入力する最大ロウ数を指定するための定数です。デフォルト値は0で、全ロウデータを一括入力します。<br/>
+     * STRING/INTEGER/LONG/TIMESTAMP型のロウキーを持つコンテナは、ロウキーの昇順に前回入力した最後のロウキーの次から入力し、
+     * それ以外のコンテナはOFFSET句を用いて入力します。
+     * gs.input.tql.whereがORDER BY句を含む場合は、ロウキーの型によらずOFFSET句を用いて入力します。
+     * gs.input.tql.whereがLIMITまたはOFFSET句を含む場合は指定できません。
      * </div><div lang="en">
      * Constant corresponding to the property "gs.input.fetch.size".<br/>
      * This object is used to specify the maximum number of rows per container to be read at a time.<br/>
-     * All rows is read at once with the default value of 0.
+     * All rows is read at once with the default value of 0.<br/>
+     * Containers with a STRING/INTEGER/LONG/TIMESTAMP row key are read in ascending order of row key, resuming after the last row key read,
+     * and other containers are read using the OFFSET clause.
+     * If gs.input.tql.where contains an ORDER BY clause, containers are read using the OFFSET clause regardless of the row key type.
+     * This property cannot be specified if gs.input.tql.where contains a LIMIT or OFFSET clause.
      * </div>
      */
     GS_INPUT_FETCH_SIZE("gs.input.fetch.size", "0", null, null) {
@@ -1109,6 +1119,610 @@ public enum GDProperty {
             return value.trim();
         }
     },
+    /**
+     * <div lang="ja">
+     * プロパティgs.input.aggregationに対応した定数です。<br/>
+     * 入力対象のコンテナ毎に実行する集計演算を','で区切って指定するための定数です。集計演算はCOUNT(*)、COUNT、SUM、MIN、MAX、AVG、VARIANCE、STDDEVにカラム名を指定します。<br/>
+     * 指定した場合、ロウデータを入力する代わりにGridDBで集計演算を実行し、InputSplit内のコンテナ毎に結果を1つのロウとして入力します。
+     * ロウのカラムはコンテナ名(ロウキー)、gs.input.split.time.windowが指定された場合は時間枠の開始時刻、各集計演算の結果の順となります。
+     * 条件に合致するロウがなく結果が得られない集計演算の値は0(TIMESTAMP型の場合は1970-01-01T00:00:00Z)となるため、COUNT(*)と合わせて指定してください。
+     * 時間枠を指定した場合は時間枠毎に結果を入力します。gs.input.split.key.range.rowsと同時に指定することはできません。
+     * デフォルト値は""で、集計演算を実行しません。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.input.aggregation".<br/>
+     * This object is used to specify the comma-separated aggregation operations executed for each input container.
+     * Each operation is COUNT(*) or one of COUNT, SUM, MIN, MAX, AVG, VARIANCE and STDDEV applied to a column name.<br/>
+     * If specified, the aggregation operations are executed in GridDB instead of reading row data,
+     * and the results for each container in the InputSplit are read as a single row.
+     * The columns of the row are the container name (row key), the start time of the time window if gs.input.split.time.window is specified,
+     * and the results of the aggregation operations in order.
+     * An aggregation operation without result because no rows match the condition is read as 0 (1970-01-01T00:00:00Z for TIMESTAMP),
+     * so specify it together with COUNT(*).
+     * If time windows are specified, the results are read for each time window. This object cannot be used with gs.input.split.key.range.rows.
+     * The default value of this object is "", which means no aggregation operations are executed.
+     * </div>
+     */
+    GS_INPUT_AGGREGATION("gs.input.aggregation", "", null, null) {
+        @Override
+        public boolean validate(String value) {
+            return true;
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.input.columnsに対応した定数です。<br/>
+     * 入力対象のカラム名を','で区切って指定するための定数です。指定した順にGSRowWritableのカラムとなります。<br/>
+     * カラム名の大文字と小文字は区別しません。デフォルト値は""で、全カラムを入力します。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.input.columns".<br/>
+     * This object is used to specify the comma-separated names of the columns for input processing.
+     * They become the columns of GSRowWritable in the specified order.<br/>
+     * Column names are case-insensitive. The default value of this object is "", which means all columns are read.
+     * </div>
+     */
+    GS_INPUT_COLUMNS("gs.input.columns", "", null, null) {
+        @Override
+        public boolean validate(String value) {
+            return true;
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.input.schema.cacheに対応した定数です。<br/>
+     * 入力対象のコンテナのスキーマをキャッシュする範囲を指定するための定数です。値は"NONE"、"TASK"、"JVM"のいずれかでなくてはなりません。<br/>
+     * "TASK"ではタスク毎に、"JVM"では同じ接続先に対してJVM内で共有してキャッシュします。"NONE"以外の場合、InputSplit作成時に取得したスキーマをInputSplitに格納し、
+     * RecordReaderでのコンテナ毎のスキーマとコンテナの存在確認の問い合わせを省略します。ただし、先頭のコンテナのスキーマはRecordReader毎に1回取得し直します。
+     * デフォルト値は"TASK"です。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.input.schema.cache".<br/>
+     * This object is used to specify the scope of caching the schemas of input containers.
+     * The value must be one of "NONE", "TASK" and "JVM".<br/>
+     * "TASK" caches for each task, and "JVM" caches in the JVM shared by tasks for the same connection destination.
+     * Unless "NONE" is specified, the schema acquired when creating InputSplits is stored in the InputSplits,
+     * and RecordReaders skip requests for the schema and the existence of each container.
+     * The schema of the first container is still acquired again once per RecordReader.
+     * The default value of this object is "TASK".
+     * </div>
+     */
+    GS_INPUT_SCHEMA_CACHE("gs.input.schema.cache", "TASK", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            return value.equalsIgnoreCase("NONE")
+                    || value.equalsIgnoreCase("TASK")
+                    || value.equalsIgnoreCase("JVM");
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim().toUpperCase();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.input.schema.cache.ttlに対応した定数です。<br/>
+     * gs.input.schema.cacheが"JVM"の場合に、キャッシュしたスキーマの有効期間を指定するための定数です。
+     * 有効期間が経過したスキーマはGridDBから取得し直すため、削除して再作成されたコンテナのスキーマも反映されます。
+     * 単位は秒です。デフォルト値は300です。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.input.schema.cache.ttl".<br/>
+     * This object is used to specify the time to live of cached schemas when gs.input.schema.cache is "JVM".
+     * Schemas whose time to live has elapsed are acquired from GridDB again, so that containers dropped and recreated are reflected.
+     * The unit of the value is seconds. The default value of this object is 300.
+     * </div>
+     */
+    GS_INPUT_SCHEMA_CACHE_TTL("gs.input.schema.cache.ttl", "300", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            try {
+                return Integer.valueOf(value) >= 0;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.input.batch.rowsに対応した定数です。<br/>
+     * GSColumnBatchInputFormatを使用する場合に、1つのGSColumnBatchWritableオブジェクトに格納する最大ロウ数を指定するための定数です。
+     * デフォルト値は1024です。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.input.batch.rows".<br/>
+     * This object is used to specify the maximum number of rows stored in a GSColumnBatchWritable object when GSColumnBatchInputFormat is used.
+     * The default value of this object is 1024.
+     * </div>
+     */
+    GS_INPUT_BATCH_ROWS("gs.input.batch.rows", "1024", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            try {
+                return Integer.valueOf(value) >= 1;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.input.fetch.threadsに対応した定数です。<br/>
+     * 1つのInputSplitからロウデータを読み込むスレッド数を指定するための定数です。<br/>
+     * 2以上の値を指定した場合、InputSplit内のパーティションをスレッド毎に分割し、スレッド毎に別の接続を用いて並行して読み込みます。
+     * バッファするロウ数の上限はgs.input.prefetch.rowsの値で、0の場合はスレッド当たり1000ロウです。デフォルト値は1です。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.input.fetch.threads".<br/>
+     * This object is used to specify the number of threads reading row data from an InputSplit.<br/>
+     * If 2 or more is specified, the partitions in the InputSplit are divided among the threads,
+     * and each thread reads concurrently using its own connection.
+     * The maximum number of buffered rows is the value of gs.input.prefetch.rows, or 1000 rows per thread if it is 0.
+     * The default value of this object is 1.
+     * </div>
+     */
+    GS_INPUT_FETCH_THREADS("gs.input.fetch.threads", "1", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            try {
+                return Integer.valueOf(value) >= 1;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.input.fetch.orderedに対応した定数です。<br/>
+     * gs.input.fetch.threadsが2以上の場合に、InputSplit内のコンテナの順序でロウデータを入力するかを指定するための定数です。<br/>
+     * "true"の場合はスレッド毎に読み込んだロウデータを順に入力し、"false"の場合は読み込んだ順に入力します。デフォルト値は"false"です。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.input.fetch.ordered".<br/>
+     * This object is used to specify whether row data is read in order of the containers in the InputSplit when gs.input.fetch.threads is 2 or more.<br/>
+     * "true" reads the row data of each thread in turn, and "false" reads row data in order of arrival. The default value of this object is "false".
+     * </div>
+     */
+    GS_INPUT_FETCH_ORDERED("gs.input.fetch.ordered", "false", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            return value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false");
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim().toLowerCase();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.input.prefetch.rowsに対応した定数です。<br/>
+     * 入力データを先読みする場合に、バッファするロウ数の上限を指定するための定数です。<br/>
+     * 1以上の値を指定した場合、Mapタスクがロウデータを処理している間にバックグラウンドのスレッドで次のロウデータを読み込みます。
+     * デフォルト値は0で、この場合は先読みしません。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.input.prefetch.rows".<br/>
+     * This object is used to specify the maximum number of rows buffered when prefetching input data.<br/>
+     * If 1 or more is specified, the next row data is read in a background thread while the Map task processes the current row data.
+     * The default value of this object is 0, which means no prefetching.
+     * </div>
+     */
+    GS_INPUT_PREFETCH_ROWS("gs.input.prefetch.rows", "0", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            try {
+                return Integer.valueOf(value) >= 0;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.input.split.key.range.rowsに対応した定数です。<br/>
+     * ロウキーの範囲でコンテナを分割するときの、InputSplit当たりのロウ数の目安を指定するための定数です。<br/>
+     * ロウ数がこの値を超えるINTEGER/LONG/TIMESTAMP型ロウキーのコンテナは、ロウキーの範囲毎のInputSplitに分割されます。デフォルト値は0で、コンテナを分割しません。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.input.split.key.range.rows".<br/>
+     * This object is used to specify the approximate number of rows per InputSplit when containers are divided by row key range.<br/>
+     * Containers with an INTEGER/LONG/TIMESTAMP row key and more rows than this value are divided into one InputSplit per row key range.<br/>
+     * Containers are not divided with the default value of 0.
+     * </div>
+     */
+    GS_INPUT_SPLIT_KEY_RANGE_ROWS("gs.input.split.key.range.rows", "0", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            try {
+                return Integer.valueOf(value) >= 0;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.input.split.modeに対応した定数です。<br/>
+     * 入力対象のコンテナをInputSplitに割り当てる方法を指定するための定数です。値は"PARTITION"、"BALANCE"、"COMBINE"のいずれかでなくてはなりません。<br/>
+     * "PARTITION"ではパーティション単位でInputSplitに割り当てます。"BALANCE"ではコンテナ毎のロウ数を取得し、InputSplit毎のロウ数がほぼ等しくなるようにコンテナ単位で割り当てます。
+     * "COMBINE"ではコンテナ毎のロウ数を取得し、同じホストのコンテナをパーティションをまたいで、ロウ数がgs.input.split.combine.rowsを超えない範囲でまとめて割り当てます。
+     * デフォルト値は"PARTITION"です。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.input.split.mode".<br/>
+     * This object is used to specify how input containers are assigned to InputSplits.<br/>
+     * The value must be one of "PARTITION", "BALANCE" and "COMBINE".<br/>
+     * "PARTITION" assigns whole partitions to InputSplits. "BALANCE" acquires the number of rows of each container
+     * and assigns containers so that each InputSplit holds roughly the same number of rows.
+     * "COMBINE" acquires the number of rows of each container and packs containers on the same host across partitions
+     * into InputSplits holding at most gs.input.split.combine.rows rows.
+     * The default value of this object is "PARTITION".
+     * </div>
+     */
+    GS_INPUT_SPLIT_MODE("gs.input.split.mode", "PARTITION", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            return value.equalsIgnoreCase("PARTITION")
+                    || value.equalsIgnoreCase("BALANCE")
+                    || value.equalsIgnoreCase("COMBINE");
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim().toUpperCase();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.input.split.combine.rowsに対応した定数です。<br/>
+     * gs.input.split.modeが"COMBINE"の場合に、1つのInputSplitにまとめるロウ数の上限を指定するための定数です。<br/>
+     * 上限を超えるロウ数のコンテナは単独でInputSplitに割り当てます。デフォルト値は1000000です。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.input.split.combine.rows".<br/>
+     * This object is used to specify the maximum number of rows packed into an InputSplit when gs.input.split.mode is "COMBINE".<br/>
+     * A container with more rows than the maximum is assigned to an InputSplit by itself. The default value of this object is 1000000.
+     * </div>
+     */
+    GS_INPUT_SPLIT_COMBINE_ROWS("gs.input.split.combine.rows", "1000000", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            try {
+                return Integer.valueOf(value) >= 1;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.input.split.time.windowに対応した定数です。<br/>
+     * ロウキーがTIMESTAMP型のコンテナを時間窓毎のInputSplitに分割するための、時間窓の長さを指定するための定数です。<br/>
+     * 書式は整数に単位(ms、s、m、h、d)を付けたものです。時間窓の境界は1970-01-01T00:00:00Zからの時間窓の長さの倍数です。<br/>
+     * 指定した場合はgs.input.split.time.startも指定しなくてはなりません。指定しない場合は時間窓で分割しません。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.input.split.time.window".<br/>
+     * This object is used to specify the length of the time window for dividing containers with TIMESTAMP row keys into one InputSplit per time window.<br/>
+     * The format is an integer followed by a unit (ms, s, m, h or d). The window boundaries are multiples of the length since 1970-01-01T00:00:00Z.<br/>
+     * If specified, gs.input.split.time.start must also be specified. If not specified, containers are not divided by time window.
+     * </div>
+     */
+    GS_INPUT_SPLIT_TIME_WINDOW("gs.input.split.time.window", "", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            if (value.length() == 0) {
+                return true;
+            }
+            try {
+                return GDPropertyUtils.parseDuration(value) > 0;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim().toLowerCase();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.input.split.time.startに対応した定数です。<br/>
+     * gs.input.split.time.windowで分割する範囲の開始時刻(この時刻を含む)を指定するための定数です。<br/>
+     * 1970-01-01T00:00:00Zからのミリ秒数、yyyy-MM-dd'T'HH:mm:ss.SSSXXXなどの日時、または、'-'に続けて時間の長さ(終了時刻からさかのぼった時刻)を指定します。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.input.split.time.start".<br/>
+     * This object is used to specify the start (inclusive) of the range divided by gs.input.split.time.window.<br/>
+     * The value is milliseconds since 1970-01-01T00:00:00Z, a date such as yyyy-MM-dd'T'HH:mm:ss.SSSXXX,
+     * or '-' followed by a duration (the time that much before the end).
+     * </div>
+     */
+    GS_INPUT_SPLIT_TIME_START("gs.input.split.time.start", "", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            if (value.length() == 0) {
+                return true;
+            }
+            try {
+                GDPropertyUtils.parseTime(value, 0);
+                return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.input.split.time.endに対応した定数です。<br/>
+     * gs.input.split.time.windowで分割する範囲の終了時刻(この時刻を含まない)を指定するための定数です。<br/>
+     * 書式はgs.input.split.time.startと同じで、'-'で始まる場合はInputSplit作成時の時刻からさかのぼった時刻となります。指定しない場合はInputSplit作成時の時刻です。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.input.split.time.end".<br/>
+     * This object is used to specify the end (exclusive) of the range divided by gs.input.split.time.window.<br/>
+     * The format is the same as gs.input.split.time.start; a value starting with '-' is relative to the time of creating InputSplits.
+     * If not specified, the time of creating InputSplits is used.
+     * </div>
+     */
+    GS_INPUT_SPLIT_TIME_END("gs.input.split.time.end", "", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            if (value.length() == 0) {
+                return true;
+            }
+            try {
+                GDPropertyUtils.parseTime(value, 0);
+                return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.input.split.threadsに対応した定数です。<br/>
+     * InputSplit作成時に、パーティション毎のコンテナ名とホストの取得を並列に実行するスレッド数を指定するための定数です。<br/>
+     * 各スレッドはそれぞれGridStoreオブジェクトを使用します。デフォルト値は1で、この場合は並列に実行しません。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.input.split.threads".<br/>
+     * This object is used to specify the number of threads which acquire container names and hosts of each partition concurrently when creating InputSplits.<br/>
+     * Each thread uses its own GridStore object. The default value of this object is 1, which means no concurrent execution.
+     * </div>
+     */
+    GS_INPUT_SPLIT_THREADS("gs.input.split.threads", "1", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            try {
+                return Integer.valueOf(value) >= 1;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.input.split.list.page.sizeに対応した定数です。<br/>
+     * gs.input.container.name.regexで入力対象を指定した場合に、パーティション内のコンテナ名を一度に取得する件数を指定するための定数です。デフォルト値は10000です。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.input.split.list.page.size".<br/>
+     * This object is used to specify the number of container names in a partition acquired at a time when input containers are specified by gs.input.container.name.regex.<br/>
+     * The default value of this object is 10000.
+     * </div>
+     */
+    GS_INPUT_SPLIT_LIST_PAGE_SIZE("gs.input.split.list.page.size", "10000", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            try {
+                return Integer.valueOf(value) >= 1;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.input.split.cache.dirに対応した定数です。<br/>
+     * InputSplit作成時に取得したパーティション毎のコンテナ名とホストをキャッシュするディレクトリを指定するための定数です。<br/>
+     * HDFSなど、Hadoopのファイルシステムのパスを指定できます。指定しない場合はキャッシュしません。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.input.split.cache.dir".<br/>
+     * This object is used to specify the directory to cache container names and hosts of each partition acquired when creating InputSplits.<br/>
+     * Any path of Hadoop file systems such as HDFS can be specified. Nothing is cached if not specified.
+     * </div>
+     */
+    GS_INPUT_SPLIT_CACHE_DIR("gs.input.split.cache.dir", "", null, null) {
+        @Override
+        public boolean validate(String value) {
+            return true;
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.input.split.cache.ttlに対応した定数です。<br/>
+     * gs.input.split.cache.dirに作成したキャッシュの有効期間を指定するための定数です。単位は秒です。デフォルト値は3600です。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.input.split.cache.ttl".<br/>
+     * This object is used to specify the time to live of the cache created in gs.input.split.cache.dir.<br/>
+     * The unit of the value is seconds. The default value of this object is 3600.
+     * </div>
+     */
+    GS_INPUT_SPLIT_CACHE_TTL("gs.input.split.cache.ttl", "3600", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            try {
+                return Integer.valueOf(value) >= 0;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.row.reuseに対応した定数です。<br/>
+     * GSRowWritableのデシリアライズ時に配列型のカラム値を再利用するかどうかを指定するための定数です。<br/>
+     * trueを指定した場合、カラム型と要素数が前のロウと同じ配列型のカラム値は新たに生成せずに上書きされます。
+     * この場合、取得した配列を次のロウの読み込み後まで保持してはいけません。デフォルト値はfalseです。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.row.reuse".<br/>
+     * This object is used to specify whether array column values are reused when GSRowWritable is deserialized.<br/>
+     * If true is specified, array column values with the same column type and length as the previous row are overwritten instead of newly created.
+     * In this case, acquired arrays must not be kept after the next row is read. The default value of this object is false.
+     * </div>
+     */
+    GS_ROW_REUSE("gs.row.reuse", "false", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            return value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false");
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim().toLowerCase();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.row.compact.type.listに対応した定数です。<br/>
+     * GSCompactRowWritableがシリアライズするロウのカラム型の一覧をカンマ区切りで指定するための定数です。<br/>
+     * 例えば"STRING,LONG,TIMESTAMP"のように、GSTypeの定数名を列挙します。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.row.compact.type.list".<br/>
+     * This object is used to specify the comma-separated list of column types of rows serialized by GSCompactRowWritable.<br/>
+     * Enumerate the constant names of GSType, e.g. "STRING,LONG,TIMESTAMP".
+     * </div>
+     */
+    GS_ROW_COMPACT_TYPE_LIST("gs.row.compact.type.list", "", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            for (String type : value.split(",")) {
+                if (type.trim().length() == 0) {
+                    continue;
+                }
+                try {
+                    GSType.valueOf(type.trim());
+                } catch (IllegalArgumentException e) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim().toUpperCase();
+        }
+    },
     /**
      * <div lang="ja">
      * プロパティgs.output.row.buffer.sizeに対応した定数です。<br/>
@@ -1136,6 +1750,164 @@ public enum GDProperty {
             return value.trim();
         }
     },
+    /**
+     * <div lang="ja">
+     * プロパティgs.output.row.buffer.bytesに対応した定数です。<br/>
+     * 一括書き込み用バッファのサイズをバイト数で指定するための定数です。<br/>
+     * バッファ中のロウデータの推定サイズが指定値に達すると、ロウ数がgs.output.row.buffer.sizeに達していなくても書き込みます。
+     * デフォルト値は0で、この場合はロウ数のみで判定します。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.output.row.buffer.bytes".<br/>
+     * This object is used to specify the buffer size for writing rows in bytes.<br/>
+     * When the estimated size of row data in the buffer reaches the specified value, the row data is written
+     * even if the number of rows has not reached gs.output.row.buffer.size.
+     * The default value of this object is 0, which means only the number of rows is checked.
+     * </div>
+     */
+    GS_OUTPUT_ROW_BUFFER_BYTES("gs.output.row.buffer.bytes", "0", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            try {
+                return Long.valueOf(value) >= 0;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.output.flush.buffersに対応した定数です。<br/>
+     * 一括書き込み用バッファの数を指定するための定数です。デフォルト値は1です。<br/>
+     * 2以上の値を指定した場合、バックグラウンドのスレッドがバッファ中のロウデータをGridDBに書き込む間に、
+     * タスクは次のバッファにロウデータを格納します。書き込み中のバッファの数は指定値から1を引いた数までに制限されます。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.output.flush.buffers".<br/>
+     * This object is used to specify the number of buffers for writing rows. The default value of this object is 1.<br/>
+     * If 2 or more is specified, the task stores row data in the next buffer while a background thread writes row data in a buffer to GridDB.
+     * The number of buffers being written is limited to the specified value minus one.
+     * </div>
+     */
+    GS_OUTPUT_FLUSH_BUFFERS("gs.output.flush.buffers", "1", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            try {
+                return Integer.valueOf(value) >= 1;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.output.flush.partitionedに対応した定数です。<br/>
+     * 書き込み先のコンテナをロウデータ毎に選択する場合に、ロウデータをパーティション毎にバッファするかどうかを指定するための定数です。<br/>
+     * trueを指定した場合、パーティション毎のロウ数がgs.output.row.buffer.sizeに達する度に、そのパーティションのロウデータを
+     * バックグラウンドのスレッドで書き込みます。デフォルト値はfalseで、この場合は全てのコンテナのロウデータを一括して書き込みます。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.output.flush.partitioned".<br/>
+     * This object is used to specify whether row data is buffered per partition when the output container is selected for each row data.<br/>
+     * If true is specified, whenever the number of rows of a partition reaches gs.output.row.buffer.size,
+     * the row data of the partition is written in a background thread.
+     * The default value of this object is false, which means the row data of all containers is written collectively.
+     * </div>
+     */
+    GS_OUTPUT_FLUSH_PARTITIONED("gs.output.flush.partitioned", "false", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            return value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false");
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim().toLowerCase();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.output.flush.threadsに対応した定数です。<br/>
+     * gs.output.flush.partitionedがtrueの場合に、パーティション毎のロウデータを書き込むスレッドの数を指定するための定数です。<br/>
+     * 各パーティションはオーナーノード毎にスレッドに割り当てられるため、異なるノードへの書き込みが並行して実行されます。
+     * 各スレッドで書き込み中のバッチの数は、gs.output.flush.buffersから1を引いた数(最小1)までに制限されます。デフォルト値は1です。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.output.flush.threads".<br/>
+     * This object is used to specify the number of threads writing row data per partition when gs.output.flush.partitioned is true.<br/>
+     * Partitions are assigned to the threads by owner node, so writing to different nodes is executed concurrently.
+     * The number of batches being written by each thread is limited to gs.output.flush.buffers minus one (at least 1).
+     * The default value of this object is 1.
+     * </div>
+     */
+    GS_OUTPUT_FLUSH_THREADS("gs.output.flush.threads", "1", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            try {
+                return Integer.valueOf(value) >= 1;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim();
+        }
+    },
+    /**
+     * <div lang="ja">
+     * プロパティgs.output.stagingに対応した定数です。<br/>
+     * gs.output.container.nameに書き込む場合に、タスクの試行毎のステージング用コンテナを使用するかどうかを指定するための定数です。<br/>
+     * trueを指定した場合、ロウデータはステージング用コンテナに書き込まれ、GSOutputCommitterがタスクのコミット時に
+     * 1つのトランザクションで出力先のコンテナに書き込みます。失敗したタスクや投機的実行で不要になったタスクのロウデータは
+     * 出力先のコンテナに書き込まれずに削除されます。ロウキーのないコンテナの場合、タスク毎の出力はgs.output.transaction.timeoutの期間内に
+     * 1つのトランザクションで書き込める量までにしてください。旧APIのジョブではJobConf#setOutputCommitterでGSOutputCommitterを指定する必要があります。
+     * GSRoutedRowOutputFormatと同時に指定することはできません。
+     * デフォルト値はfalseです。
+     * </div><div lang="en">
+     * Constant corresponding to the property "gs.output.staging".<br/>
+     * This object is used to specify whether a staging container is used for each task attempt when writing to gs.output.container.name.<br/>
+     * If true is specified, row data is written to the staging container, and GSOutputCommitter writes it to the output container
+     * in one transaction when the task is committed. Row data of failed tasks or of tasks made unnecessary by speculative execution
+     * is dropped without being written to the output container. For containers without a row key, keep the output of each task
+     * small enough to be written in one transaction within gs.output.transaction.timeout.
+     * Jobs of the old API must specify GSOutputCommitter by JobConf#setOutputCommitter. This object cannot be used with GSRoutedRowOutputFormat.
+     * The default value of this object is false.
+     * </div>
+     */
+    GS_OUTPUT_STAGING("gs.output.staging", "false", null, null) {
+        @Override
+        public boolean validate(String value) {
+            if (value == null) {
+                return false;
+            }
+            return value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false");
+        }
+
+        @Override
+        public String normalize(String value) {
+            return value.trim().toLowerCase();
+        }
+    },
 
     GS_INPUT_ROW_KEY_ASSIGNED("gs.input.row.key.assigned", null, null, null) {
         @Override
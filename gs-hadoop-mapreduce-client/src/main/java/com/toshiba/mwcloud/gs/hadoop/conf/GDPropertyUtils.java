@@ -18,9 +18,15 @@ package com.toshiba.mwcloud.gs.hadoop.conf;
 
 import static com.toshiba.mwcloud.gs.hadoop.conf.GDProperty.*;
 
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Properties;
+import java.util.TimeZone;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.hadoop.conf.Configuration;
 
@@ -60,6 +66,12 @@ public class GDPropertyUtils {
         GS_OUTPUT_NOTIFICATION_MEMBER, GS_OUTPUT_NOTIFICATION_PROVIDER
     };
 
+    private static final Pattern DURATION_PATTERN = Pattern.compile("(\\d+)(ms|s|m|h|d)?");
+
+    private static final String[] TIME_FORMATS = {
+        "yyyy-MM-dd'T'HH:mm:ss.SSSXXX", "yyyy-MM-dd'T'HH:mm:ssXXX", "yyyy-MM-dd'T'HH:mm:ss", "yyyy-MM-dd"
+    };
+
     private GDPropertyUtils() {
     }
 
@@ -181,4 +193,103 @@ public class GDPropertyUtils {
     public static int getInteger(Configuration conf, GDProperty property) throws NumberFormatException {
         return Integer.valueOf(property.getProperty(conf));
     }
+
+    /**
+     * <div lang="ja">
+     * プロパティに設定されたlong型の整数値を返します。
+     * @param conf Configurationオブジェクト
+     * @param property GDProperty型定数
+     * @return プロパティの整数値
+     * @throws NumberFormatException
+     * </div><div lang="en">
+     * Return the long integer value set in the property.
+     * @param conf Configuration object
+     * @param property GDProperty object
+     * @return integer value of property
+     * @throws NumberFormatException
+     * </div>
+     */
+    public static long getLong(Configuration conf, GDProperty property) throws NumberFormatException {
+        return Long.valueOf(property.getProperty(conf));
+    }
+
+    /**
+     * <div lang="ja">
+     * 時間の長さを表す文字列をミリ秒単位の値に変換します。<br/>
+     * 書式は整数に単位(ms、s、m、h、d)を付けたものです。単位を省略した場合はミリ秒とみなします。
+     * @param value 時間の長さを表す文字列
+     * @return ミリ秒単位の値
+     * @throws IllegalArgumentException 書式が適切ではない
+     * </div><div lang="en">
+     * Convert a string representing a duration to milliseconds.<br/>
+     * The format is an integer followed by a unit (ms, s, m, h or d). Milliseconds are assumed if the unit is omitted.
+     * @param value string representing a duration
+     * @return value in milliseconds
+     * @throws IllegalArgumentException the format is not appropriate
+     * </div>
+     */
+    public static long parseDuration(String value) throws IllegalArgumentException {
+        Matcher m = DURATION_PATTERN.matcher(value.trim().toLowerCase());
+        if (! m.matches()) {
+            throw new IllegalArgumentException("Illegal duration(" + value + ")");
+        }
+        long duration = Long.parseLong(m.group(1));
+        String unit = m.group(2);
+        if (unit == null || unit.equals("ms")) {
+            return duration;
+        } else if (unit.equals("s")) {
+            return duration * 1000L;
+        } else if (unit.equals("m")) {
+            return duration * 60L * 1000L;
+        } else if (unit.equals("h")) {
+            return duration * 60L * 60L * 1000L;
+        }
+        return duration * 24L * 60L * 60L * 1000L;
+    }
+
+    /**
+     * <div lang="ja">
+     * 時刻を表す文字列をミリ秒単位の時刻に変換します。<br/>
+     * 書式は以下のいずれかです。タイムゾーンを省略した場合はUTCとみなします。<br/>
+     * 1970-01-01T00:00:00Zからのミリ秒数<br/>
+     * yyyy-MM-dd'T'HH:mm:ss.SSSXXX、yyyy-MM-dd'T'HH:mm:ssXXX、yyyy-MM-dd'T'HH:mm:ss、yyyy-MM-dd<br/>
+     * '-'に続けて時間の長さ(基準時刻からさかのぼった時刻)
+     * @param value 時刻を表す文字列
+     * @param base 基準時刻
+     * @return ミリ秒単位の時刻
+     * @throws IllegalArgumentException 書式が適切ではない
+     * </div><div lang="en">
+     * Convert a string representing a time to milliseconds.<br/>
+     * The format is one of the following. UTC is assumed if the time zone is omitted.<br/>
+     * Milliseconds since 1970-01-01T00:00:00Z<br/>
+     * yyyy-MM-dd'T'HH:mm:ss.SSSXXX, yyyy-MM-dd'T'HH:mm:ssXXX, yyyy-MM-dd'T'HH:mm:ss or yyyy-MM-dd<br/>
+     * '-' followed by a duration (the time that much before the base time)
+     * @param value string representing a time
+     * @param base base time
+     * @return time in milliseconds
+     * @throws IllegalArgumentException the format is not appropriate
+     * </div>
+     */
+    public static long parseTime(String value, long base) throws IllegalArgumentException {
+        value = value.trim();
+        if (value.startsWith("-")) {
+            return base - parseDuration(value.substring(1));
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            // try the date formats
+        }
+        for (String format : TIME_FORMATS) {
+            SimpleDateFormat dateFormat = new SimpleDateFormat(format);
+            dateFormat.setLenient(false);
+            dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+            ParsePosition pos = new ParsePosition(0);
+            Date date = dateFormat.parse(value, pos);
+            if (date != null && pos.getIndex() == value.length()) {
+                return date.getTime();
+            }
+        }
+        throw new IllegalArgumentException("Illegal time(" + value + ")");
+    }
 }
@@ -0,0 +1,532 @@
+/*
+   Copyright (c) 2016 TOSHIBA CORPORATION.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.toshiba.mwcloud.gs.hadoop.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+import com.toshiba.mwcloud.gs.GSException;
+import com.toshiba.mwcloud.gs.GSType;
+import com.toshiba.mwcloud.gs.Row;
+
+/**
+ * <div lang="ja">
+ * 複数のロウのカラム値をカラム毎の配列で保持するWritableです。<br/>
+ * GSColumnBatchRecordReaderがオブジェクトを生成し、Mapタスクに値として渡されます。<br/>
+ * BOOL/BYTE/SHORT/INTEGER型のカラムはint配列、LONG型とTIMESTAMP型(ミリ秒単位の時刻)のカラムはlong配列、
+ * FLOAT/DOUBLE型のカラムはdouble配列、STRING型のカラムは辞書と辞書番号のint配列で保持します。その他の型のカラムはObject配列で保持します。<br/>
+ * NULLのカラム値はカラム毎のビットマップで表します。NULLのカラム値に対応する配列の要素の値は不定です。
+ * </div><div lang="en">
+ * Writable holding the column values of multiple rows in an array for each column.<br/>
+ * Generated by GSColumnBatchRecordReader and handed over as an input value to the Map task.<br/>
+ * BOOL/BYTE/SHORT/INTEGER columns are held in int arrays, LONG and TIMESTAMP (milliseconds) columns in long arrays,
+ * FLOAT/DOUBLE columns in double arrays, and STRING columns in a dictionary and an int array of dictionary codes.
+ * Columns of other types are held in Object arrays.<br/>
+ * NULL column values are represented by a bitmap for each column. The array elements corresponding to NULL values are undefined.
+ * </div>
+ */
+public class GSColumnBatchWritable implements Writable {
+    private GSType[] types_;
+    private int capacity_;
+    private int rowCount_;
+
+    private int[][] ints_;
+    private long[][] longs_;
+    private double[][] doubles_;
+    private Object[][] objects_;
+    private long[][] nulls_;
+
+    private List<List<String>> dictionaryList_;
+    private List<Map<String, Integer>> dictionaryMapList_;
+
+    public GSColumnBatchWritable() {
+        types_ = new GSType[0];
+        capacity_ = 0;
+        rowCount_ = 0;
+    }
+
+    /**
+     * <div lang="ja">
+     * 保持しているロウを破棄し、指定されたカラム型と最大ロウ数で再利用できるようにします。<br/>
+     * カラム型と最大ロウ数が変わらない場合は、配列を再利用します。
+     * @param types カラム型の配列
+     * @param capacity 保持する最大ロウ数
+     * </div><div lang="en">
+     * Discard the held rows and prepare the object for reuse with the specified column types and maximum number of rows.<br/>
+     * The arrays are reused if the column types and the maximum number of rows do not change.
+     * @param types column type array
+     * @param capacity maximum number of rows to hold
+     * </div>
+     */
+    public void reset(GSType[] types, int capacity) {
+        if (capacity != capacity_ || ! Arrays.equals(types, types_)) {
+            types_ = types.clone();
+            capacity_ = capacity;
+            ints_ = new int[types.length][];
+            longs_ = new long[types.length][];
+            doubles_ = new double[types.length][];
+            objects_ = new Object[types.length][];
+            nulls_ = new long[types.length][(capacity + 63) / 64];
+            dictionaryList_ = new ArrayList<List<String>>(types.length);
+            dictionaryMapList_ = new ArrayList<Map<String, Integer>>(types.length);
+            for (int i = 0; i < types.length; i++) {
+                allocate(i);
+            }
+        } else {
+            for (int i = 0; i < types_.length; i++) {
+                Arrays.fill(nulls_[i], 0L);
+                if (types_[i] == GSType.STRING) {
+                    dictionaryList_.get(i).clear();
+                    dictionaryMapList_.get(i).clear();
+                } else if (objects_[i] != null) {
+                    Arrays.fill(objects_[i], null);
+                }
+            }
+        }
+        rowCount_ = 0;
+    }
+
+    private void allocate(int column) {
+        List<String> dictionary = null;
+        Map<String, Integer> dictionaryMap = null;
+        switch (types_[column]) {
+        case BOOL:
+        case BYTE:
+        case SHORT:
+        case INTEGER:
+            ints_[column] = new int[capacity_];
+            break;
+        case LONG:
+        case TIMESTAMP:
+            longs_[column] = new long[capacity_];
+            break;
+        case FLOAT:
+        case DOUBLE:
+            doubles_[column] = new double[capacity_];
+            break;
+        case STRING:
+            ints_[column] = new int[capacity_];
+            dictionary = new ArrayList<String>();
+            dictionaryMap = new HashMap<String, Integer>();
+            break;
+        default:
+            objects_[column] = new Object[capacity_];
+            break;
+        }
+        dictionaryList_.add(dictionary);
+        dictionaryMapList_.add(dictionaryMap);
+    }
+
+    /**
+     * <div lang="ja">
+     * GridDBのRowオブジェクトのカラム値を末尾のロウとして追加します。
+     * @param row GridDBのRowオブジェクト
+     * @param columnIndexes 追加するRowオブジェクトのカラム番号の配列、全カラムを追加する場合はnull
+     * @throws GSException GridDBで例外が発生しました
+     * </div><div lang="en">
+     * Append the column values of the GridDB Row object as the last row.
+     * @param row GridDB Row object
+     * @param columnIndexes array of column numbers of the Row object to append, or null to append all columns
+     * @throws GSException an exception occurred in Row object
+     * </div>
+     */
+    public void addRow(Row row, int[] columnIndexes) throws GSException {
+        if (rowCount_ >= capacity_) {
+            throw new IllegalStateException("Batch is full(" + capacity_ + ")");
+        }
+        int r = rowCount_;
+        for (int i = 0; i < types_.length; i++) {
+            int index = (columnIndexes == null) ? i : columnIndexes[i];
+            if (row.isNull(index)) {
+                nulls_[i][r >>> 6] |= 1L << (r & 63);
+                continue;
+            }
+            switch (types_[i]) {
+            case BOOL:
+                ints_[i][r] = row.getBool(index) ? 1 : 0;
+                break;
+            case BYTE:
+                ints_[i][r] = row.getByte(index);
+                break;
+            case SHORT:
+                ints_[i][r] = row.getShort(index);
+                break;
+            case INTEGER:
+                ints_[i][r] = row.getInteger(index);
+                break;
+            case LONG:
+                longs_[i][r] = row.getLong(index);
+                break;
+            case TIMESTAMP:
+                longs_[i][r] = row.getTimestamp(index).getTime();
+                break;
+            case FLOAT:
+                doubles_[i][r] = row.getFloat(index);
+                break;
+            case DOUBLE:
+                doubles_[i][r] = row.getDouble(index);
+                break;
+            case STRING:
+                ints_[i][r] = encode(i, row.getString(index));
+                break;
+            default:
+                objects_[i][r] = row.getValue(index);
+                break;
+            }
+        }
+        rowCount_++;
+    }
+
+    private int encode(int column, String value) {
+        Map<String, Integer> dictionaryMap = dictionaryMapList_.get(column);
+        Integer code = dictionaryMap.get(value);
+        if (code == null) {
+            List<String> dictionary = dictionaryList_.get(column);
+            code = dictionary.size();
+            dictionary.add(value);
+            dictionaryMap.put(value, code);
+        }
+        return code;
+    }
+
+    /**
+     * <div lang="ja">
+     * 保持しているロウ数を返します。
+     * @return ロウ数
+     * </div><div lang="en">
+     * Return the number of rows held.
+     * @return number of rows
+     * </div>
+     */
+    public int getRowCount() {
+        return rowCount_;
+    }
+
+    /**
+     * <div lang="ja">
+     * 保持できる最大ロウ数に達したかを判定します。
+     * @return 達していればtrue、そうでなければfalse
+     * </div><div lang="en">
+     * Determine whether the maximum number of rows has been reached.
+     * @return true if reached and false otherwise
+     * </div>
+     */
+    public boolean isFull() {
+        return rowCount_ >= capacity_;
+    }
+
+    /**
+     * <div lang="ja">
+     * カラム数を返します。
+     * @return カラム数
+     * </div><div lang="en">
+     * Return the number of columns.
+     * @return number of columns
+     * </div>
+     */
+    public int getColumnCount() {
+        return types_.length;
+    }
+
+    /**
+     * <div lang="ja">
+     * 指定された番号のカラムの型を返します。
+     * @param columnIndex カラム番号(0以上かつカラム数未満の値)
+     * @return カラム型
+     * </div><div lang="en">
+     * Return the data type of the specified column number.
+     * @param columnIndex column number (a value of 0 or higher and less than the number of columns)
+     * @return column type
+     * </div>
+     */
+    public GSType getType(int columnIndex) {
+        return types_[columnIndex];
+    }
+
+    /**
+     * <div lang="ja">
+     * 指定されたロウのカラム値がNULLかを判定します。
+     * @param columnIndex カラム番号(0以上かつカラム数未満の値)
+     * @param rowIndex ロウ番号(0以上かつロウ数未満の値)
+     * @return NULLであればtrue、そうでなければfalse
+     * </div><div lang="en">
+     * Determine whether the column value of the specified row is NULL.
+     * @param columnIndex column number (a value of 0 or higher and less than the number of columns)
+     * @param rowIndex row number (a value of 0 or higher and less than the number of rows)
+     * @return true if NULL and false otherwise
+     * </div>
+     */
+    public boolean isNull(int columnIndex, int rowIndex) {
+        return (nulls_[columnIndex][rowIndex >>> 6] & (1L << (rowIndex & 63))) != 0;
+    }
+
+    /**
+     * <div lang="ja">
+     * 指定されたカラムのNULLのビットマップを返します。ロウ番号rのビットは(r / 64)番目の要素の(r % 64)番目のビットです。
+     * @param columnIndex カラム番号(0以上かつカラム数未満の値)
+     * @return NULLのビットマップ
+     * </div><div lang="en">
+     * Return the NULL bitmap of the specified column. The bit of row number r is bit (r % 64) of element (r / 64).
+     * @param columnIndex column number (a value of 0 or higher and less than the number of columns)
+     * @return NULL bitmap
+     * </div>
+     */
+    public long[] getNullBitmap(int columnIndex) {
+        return nulls_[columnIndex];
+    }
+
+    /**
+     * <div lang="ja">
+     * BOOL/BYTE/SHORT/INTEGER型のカラム値の配列、またはSTRING型のカラム値の辞書番号の配列を返します。BOOL型は1がtrue、0がfalseです。<br/>
+     * 配列の長さは最大ロウ数で、有効な要素はロウ数までです。
+     * @param columnIndex カラム番号(0以上かつカラム数未満の値)
+     * @return int型の配列
+     * </div><div lang="en">
+     * Return the array of BOOL/BYTE/SHORT/INTEGER column values, or the array of dictionary codes of STRING column values.
+     * BOOL values are 1 for true and 0 for false.<br/>
+     * The length of the array is the maximum number of rows, and the elements are valid up to the number of rows.
+     * @param columnIndex column number (a value of 0 or higher and less than the number of columns)
+     * @return int array
+     * </div>
+     */
+    public int[] getInts(int columnIndex) {
+        return ints_[columnIndex];
+    }
+
+    /**
+     * <div lang="ja">
+     * LONG型またはTIMESTAMP型(ミリ秒単位の時刻)のカラム値の配列を返します。<br/>
+     * 配列の長さは最大ロウ数で、有効な要素はロウ数までです。
+     * @param columnIndex カラム番号(0以上かつカラム数未満の値)
+     * @return long型の配列
+     * </div><div lang="en">
+     * Return the array of LONG or TIMESTAMP (milliseconds) column values.<br/>
+     * The length of the array is the maximum number of rows, and the elements are valid up to the number of rows.
+     * @param columnIndex column number (a value of 0 or higher and less than the number of columns)
+     * @return long array
+     * </div>
+     */
+    public long[] getLongs(int columnIndex) {
+        return longs_[columnIndex];
+    }
+
+    /**
+     * <div lang="ja">
+     * FLOAT型またはDOUBLE型のカラム値の配列を返します。<br/>
+     * 配列の長さは最大ロウ数で、有効な要素はロウ数までです。
+     * @param columnIndex カラム番号(0以上かつカラム数未満の値)
+     * @return double型の配列
+     * </div><div lang="en">
+     * Return the array of FLOAT or DOUBLE column values.<br/>
+     * The length of the array is the maximum number of rows, and the elements are valid up to the number of rows.
+     * @param columnIndex column number (a value of 0 or higher and less than the number of columns)
+     * @return double array
+     * </div>
+     */
+    public double[] getDoubles(int columnIndex) {
+        return doubles_[columnIndex];
+    }
+
+    /**
+     * <div lang="ja">
+     * STRING型のカラムの辞書を返します。辞書番号がリストの位置です。
+     * @param columnIndex カラム番号(0以上かつカラム数未満の値)
+     * @return 文字列のリスト
+     * </div><div lang="en">
+     * Return the dictionary of the STRING column. The dictionary code is the position in the list.
+     * @param columnIndex column number (a value of 0 or higher and less than the number of columns)
+     * @return list of strings
+     * </div>
+     */
+    public List<String> getDictionary(int columnIndex) {
+        return dictionaryList_.get(columnIndex);
+    }
+
+    /**
+     * <div lang="ja">
+     * STRING型のカラム値を返します。
+     * @param columnIndex カラム番号(0以上かつカラム数未満の値)
+     * @param rowIndex ロウ番号(0以上かつロウ数未満の値)
+     * @return カラム値、NULLの場合はnull
+     * </div><div lang="en">
+     * Return the value of the STRING column.
+     * @param columnIndex column number (a value of 0 or higher and less than the number of columns)
+     * @param rowIndex row number (a value of 0 or higher and less than the number of rows)
+     * @return column value or null if NULL
+     * </div>
+     */
+    public String getString(int columnIndex, int rowIndex) {
+        if (isNull(columnIndex, rowIndex)) {
+            return null;
+        }
+        return dictionaryList_.get(columnIndex).get(ints_[columnIndex][rowIndex]);
+    }
+
+    /**
+     * <div lang="ja">
+     * その他の型のカラム値の配列を返します。<br/>
+     * 配列の長さは最大ロウ数で、有効な要素はロウ数までです。
+     * @param columnIndex カラム番号(0以上かつカラム数未満の値)
+     * @return Object型の配列
+     * </div><div lang="en">
+     * Return the array of column values of other types.<br/>
+     * The length of the array is the maximum number of rows, and the elements are valid up to the number of rows.
+     * @param columnIndex column number (a value of 0 or higher and less than the number of columns)
+     * @return Object array
+     * </div>
+     */
+    public Object[] getObjects(int columnIndex) {
+        return objects_[columnIndex];
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.apache.hadoop.io.Writable#write(java.io.DataOutput)
+     */
+    @Override
+    public void write(DataOutput out) throws IOException {
+        WritableUtils.writeVInt(out, types_.length);
+        for (GSType type : types_) {
+            WritableUtils.writeEnum(out, type);
+        }
+        WritableUtils.writeVInt(out, capacity_);
+        WritableUtils.writeVInt(out, rowCount_);
+
+        int words = (rowCount_ + 63) / 64;
+        for (int i = 0; i < types_.length; i++) {
+            for (int j = 0; j < words; j++) {
+                out.writeLong(nulls_[i][j]);
+            }
+            switch (types_[i]) {
+            case BOOL:
+            case BYTE:
+            case SHORT:
+            case INTEGER:
+                for (int r = 0; r < rowCount_; r++) {
+                    out.writeInt(ints_[i][r]);
+                }
+                break;
+            case LONG:
+            case TIMESTAMP:
+                for (int r = 0; r < rowCount_; r++) {
+                    out.writeLong(longs_[i][r]);
+                }
+                break;
+            case FLOAT:
+            case DOUBLE:
+                for (int r = 0; r < rowCount_; r++) {
+                    out.writeDouble(doubles_[i][r]);
+                }
+                break;
+            case STRING:
+                List<String> dictionary = dictionaryList_.get(i);
+                WritableUtils.writeVInt(out, dictionary.size());
+                for (String value : dictionary) {
+                    Text.writeString(out, value);
+                }
+                for (int r = 0; r < rowCount_; r++) {
+                    WritableUtils.writeVInt(out, ints_[i][r]);
+                }
+                break;
+            default:
+                GSRowWritable writable = new GSRowWritable(new GSType[] { types_[i] });
+                for (int r = 0; r < rowCount_; r++) {
+                    if (! isNull(i, r)) {
+                        writable.setValue(0, objects_[i][r]);
+                        writable.write(out);
+                    }
+                }
+                break;
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.apache.hadoop.io.Writable#readFields(java.io.DataInput)
+     */
+    @Override
+    public void readFields(DataInput in) throws IOException {
+        GSType[] types = new GSType[WritableUtils.readVInt(in)];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = WritableUtils.readEnum(in, GSType.class);
+        }
+        reset(types, WritableUtils.readVInt(in));
+        rowCount_ = WritableUtils.readVInt(in);
+
+        int words = (rowCount_ + 63) / 64;
+        for (int i = 0; i < types_.length; i++) {
+            for (int j = 0; j < words; j++) {
+                nulls_[i][j] = in.readLong();
+            }
+            switch (types_[i]) {
+            case BOOL:
+            case BYTE:
+            case SHORT:
+            case INTEGER:
+                for (int r = 0; r < rowCount_; r++) {
+                    ints_[i][r] = in.readInt();
+                }
+                break;
+            case LONG:
+            case TIMESTAMP:
+                for (int r = 0; r < rowCount_; r++) {
+                    longs_[i][r] = in.readLong();
+                }
+                break;
+            case FLOAT:
+            case DOUBLE:
+                for (int r = 0; r < rowCount_; r++) {
+                    doubles_[i][r] = in.readDouble();
+                }
+                break;
+            case STRING:
+                List<String> dictionary = dictionaryList_.get(i);
+                Map<String, Integer> dictionaryMap = dictionaryMapList_.get(i);
+                int size = WritableUtils.readVInt(in);
+                for (int j = 0; j < size; j++) {
+                    String value = Text.readString(in);
+                    dictionary.add(value);
+                    dictionaryMap.put(value, j);
+                }
+                for (int r = 0; r < rowCount_; r++) {
+                    ints_[i][r] = WritableUtils.readVInt(in);
+                }
+                break;
+            default:
+                GSRowWritable writable = new GSRowWritable();
+                for (int r = 0; r < rowCount_; r++) {
+                    if (! isNull(i, r)) {
+                        writable.readFields(in);
+                        objects_[i][r] = writable.getValue(0);
+                    }
+                }
+                break;
+            }
+        }
+    }
+}
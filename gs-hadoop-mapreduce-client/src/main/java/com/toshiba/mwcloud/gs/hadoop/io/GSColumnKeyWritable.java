@@ -22,15 +22,18 @@ import java.io.IOException;
 import java.util.Date;
 
 import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.io.WritableComparator;
 
 import com.toshiba.mwcloud.gs.GSType;
 
 /**
  * <div lang="ja">
  * GridDBのロウキー用Writableです。<br/>
- * GSRowRecirdReaderが作成し、Mapタスクにキーとして渡されます。
+ * GSRowRecirdReaderが作成し、Mapタスクにキーとして渡されます。<br/>
+ * Mapタスクの出力キーとして使用する場合、シリアライズされたバイト列のまま比較するComparatorが使用されます。
  * </div><div lang="en">
- * Writable for row key of GridDB container created by GSRowRecirdReader and handed over as an input key to the Map task.
+ * Writable for row key of GridDB container created by GSRowRecirdReader and handed over as an input key to the Map task.<br/>
+ * When used as an output key of the Map task, Comparator comparing the serialized bytes directly is used.
  * </div>
  */
 public class GSColumnKeyWritable implements WritableComparable<GSColumnKeyWritable> {
@@ -43,6 +46,20 @@ public class GSColumnKeyWritable implements WritableComparable<GSColumnKeyWritab
     protected static final byte STRING = 0x09;
     protected static final byte TIMESTAMP = 0x0a;
 
+    static {
+        WritableComparator.define(GSColumnKeyWritable.class, new Comparator());
+    }
+
+    /**
+     * <div lang="ja">
+     * 型を持たないオブジェクトを作成します。デシリアライズ時に使用されます。
+     * </div><div lang="en">
+     * Create object without data type, which is used for deserialization.
+     * </div>
+     */
+    public GSColumnKeyWritable() {
+        this(null);
+    }
     /**
      * <div lang="ja">
      * 指定された型のオブジェクトを作成します。
@@ -229,6 +246,10 @@ public class GSColumnKeyWritable implements WritableComparable<GSColumnKeyWritab
      */
     @Override
     public void write(DataOutput out) throws IOException {
+        if (type_ == null) {
+            out.writeByte(NULL);
+            return;
+        }
         switch (type_) {
         case INTEGER:
             out.writeByte(INTEGER);
@@ -258,6 +279,9 @@ public class GSColumnKeyWritable implements WritableComparable<GSColumnKeyWritab
     @Override
     public int compareTo(GSColumnKeyWritable o) {
         if (type_ == o.type_) {
+            if (type_ == null) {
+                return 0;
+            }
             switch (type_) {
             case INTEGER:
                 return ((Integer) value_).compareTo(o.getInteger());
@@ -271,6 +295,9 @@ public class GSColumnKeyWritable implements WritableComparable<GSColumnKeyWritab
                 return 0;
             }
         } else {
+            if (type_ == null) {
+                return 1;
+            }
             switch (type_) {
             case INTEGER:
                 return -1;
@@ -298,6 +325,113 @@ public class GSColumnKeyWritable implements WritableComparable<GSColumnKeyWritab
         }
     }
 
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (! (obj instanceof GSColumnKeyWritable)) {
+            return false;
+        }
+        return compareTo((GSColumnKeyWritable) obj) == 0;
+    }
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        if (type_ == null || value_ == null) {
+            return 0;
+        }
+        return type_.ordinal() * 31 + value_.hashCode();
+    }
+
+    /**
+     * <div lang="ja">
+     * シリアライズされたGSColumnKeyWritableをデシリアライズせずに比較するComparatorです。<br/>
+     * 型の順序とSTRING型の文字列の順序はcompareToと同じです。
+     * </div><div lang="en">
+     * Comparator comparing serialized GSColumnKeyWritable objects without deserialization.<br/>
+     * The order of data types and of STRING values is the same as compareTo.
+     * </div>
+     */
+    public static class Comparator extends WritableComparator {
+        public Comparator() {
+            super(GSColumnKeyWritable.class);
+        }
+
+        /*
+         * (non-Javadoc)
+         * @see org.apache.hadoop.io.WritableComparator#compare(byte[], int, int, byte[], int, int)
+         */
+        @Override
+        public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+            int rank1 = rank(b1[s1]);
+            int rank2 = rank(b2[s2]);
+            if (rank1 != rank2) {
+                return (rank1 < rank2) ? -1 : 1;
+            }
+
+            switch (b1[s1]) {
+            case INTEGER:
+                return compare(readInt(b1, s1 + 1), readInt(b2, s2 + 1));
+            case LONG:
+            case TIMESTAMP:
+                return compare(readLong(b1, s1 + 1), readLong(b2, s2 + 1));
+            case STRING:
+                return compareString(b1, s1 + 5, readInt(b1, s1 + 1), b2, s2 + 5, readInt(b2, s2 + 1));
+            default:
+                return 0;
+            }
+        }
+
+        private static int rank(byte type) {
+            switch (type) {
+            case INTEGER:
+            case LONG:
+            case STRING:
+            case TIMESTAMP:
+                return type;
+            default:
+                // keys without type are sorted last
+                return Integer.MAX_VALUE;
+            }
+        }
+
+        private static int compare(long value1, long value2) {
+            return (value1 < value2) ? -1 : ((value1 == value2) ? 0 : 1);
+        }
+
+        private static int compareString(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+            int len = Math.min(l1, l2);
+            int i = 0;
+            while (i < len && b1[s1 + i] == b2[s2 + i]) {
+                i++;
+            }
+            if (i == len) {
+                return l1 - l2;
+            }
+
+            // UTF-8 bytes are ordered by code point, while String.compareTo orders by UTF-16 code unit.
+            // They differ only between supplementary characters and U+E000..U+FFFF.
+            int start = i;
+            while (start > 0 && (b1[s1 + start] & 0xc0) == 0x80) {
+                start--;
+            }
+            int lead1 = b1[s1 + start] & 0xff;
+            int lead2 = b2[s2 + start] & 0xff;
+            if (lead1 >= 0xf0 && (lead2 == 0xee || lead2 == 0xef)) {
+                return -1;
+            }
+            if (lead2 >= 0xf0 && (lead1 == 0xee || lead1 == 0xef)) {
+                return 1;
+            }
+            return (b1[s1 + i] & 0xff) - (b2[s2 + i] & 0xff);
+        }
+    }
+
     private String readString(DataInput in) throws IOException {
         int len = in.readInt();
         byte[] buffer = new byte[len];
@@ -0,0 +1,410 @@
+/*
+   Copyright (c) 2016 TOSHIBA CORPORATION.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.toshiba.mwcloud.gs.hadoop.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+
+import java.sql.Blob;
+import java.sql.SQLException;
+import javax.sql.rowset.serial.SerialBlob;
+
+import java.util.Date;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.WritableUtils;
+
+import com.toshiba.mwcloud.gs.GSType;
+import com.toshiba.mwcloud.gs.hadoop.conf.GDProperty;
+import com.toshiba.mwcloud.gs.hadoop.conf.GDPropertyUtils;
+
+/**
+ * <div lang="ja">
+ * カラム型をジョブ単位で固定した、GridDBのRowオブジェクト用のコンパクトなWritableです。<br/>
+ * カラム型の一覧はプロパティgs.row.compact.type.listで指定します。デシリアライズ時にはこのプロパティが必要です。
+ * シリアライズ時にプロパティが設定されていない場合は、オブジェクトのカラム型を使用します。<br/>
+ * カラム数とカラム型は出力せず、NULLのカラムはビットマップで表します。長さは可変長整数で出力し、
+ * プリミティブ型の配列は一括してコピーします。GSRowWritableと異なり、NULLのカラム値を扱うことができます。
+ * </div><div lang="en">
+ * Compact Writable for Row object of GridDB whose column types are fixed per job.<br/>
+ * The list of column types is specified by the property "gs.row.compact.type.list", which is required for deserialization.
+ * If the property is not set for serialization, the column types of the object are used.<br/>
+ * The number of columns and the column types are not written, and NULL columns are represented by a bitmap.
+ * Lengths are written as variable-length integers, and arrays of primitive types are copied in bulk.
+ * Unlike GSRowWritable, NULL column values can be handled.
+ * </div>
+ */
+public class GSCompactRowWritable extends GSRowWritable {
+    private GSType[] schema_;
+
+    private ByteBuffer buffer_;
+
+    public GSCompactRowWritable() {
+    }
+    /**
+     * <div lang="ja">
+     * 空のオブジェクトを生成します。
+     * @param types カラム型の配列
+     * </div><div lang="en">
+     * Generate an empty object.
+     * @param types column type array
+     * </div>
+     */
+    public GSCompactRowWritable(GSType[] types) {
+        super(types);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see com.toshiba.mwcloud.gs.hadoop.io.GSRowWritable#setConf(org.apache.hadoop.conf.Configuration)
+     */
+    @Override
+    public void setConf(Configuration conf) {
+        super.setConf(conf);
+        schema_ = null;
+        if (conf != null) {
+            List<String> typeList = GDPropertyUtils.getPropertyList(conf, GDProperty.GS_ROW_COMPACT_TYPE_LIST);
+            if (typeList.size() > 0) {
+                schema_ = new GSType[typeList.size()];
+                for (int i = 0; i < schema_.length; i++) {
+                    schema_[i] = GSType.valueOf(typeList.get(i));
+                }
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.apache.hadoop.io.Writable#readFields(java.io.DataInput)
+     */
+    @Override
+    public void readFields(DataInput in) throws IOException {
+        if (schema_ == null) {
+            throw new IOException("GSCompactRowWritable: Not Found(" + GDProperty.GS_ROW_COMPACT_TYPE_LIST.getKey() + ")");
+        }
+        int count = schema_.length;
+        if (values_ == null || values_.length != count || primitives_ == null) {
+            values_ = new Object[count];
+            types_ = new GSType[count];
+            primitives_ = new long[count];
+        }
+        System.arraycopy(schema_, 0, types_, 0, count);
+
+        for (int i = 0; i < count; i += 8) {
+            int nulls = in.readUnsignedByte();
+            for (int j = i; j < Math.min(i + 8, count); j++) {
+                if ((nulls & (1 << (j - i))) != 0) {
+                    values_[j] = null;
+                } else {
+                    readColumn(in, j);
+                }
+            }
+        }
+    }
+    /*
+     * (non-Javadoc)
+     * @see org.apache.hadoop.io.Writable#write(java.io.DataOutput)
+     */
+    @Override
+    public void write(DataOutput out) throws IOException {
+        GSType[] schema = (schema_ != null) ? schema_ : types_;
+        if (schema == null || values_ == null || values_.length != schema.length) {
+            throw new IOException("GSCompactRowWritable: Illegal column count");
+        }
+        for (int i = 0; i < schema.length; i++) {
+            if (types_[i] != schema[i]) {
+                throw new IOException("GSCompactRowWritable: Illegal type(" + types_[i] + ")");
+            }
+        }
+
+        int count = schema.length;
+        for (int i = 0; i < count; i += 8) {
+            int nulls = 0;
+            for (int j = i; j < Math.min(i + 8, count); j++) {
+                if (values_[j] == null) {
+                    nulls |= 1 << (j - i);
+                }
+            }
+            out.writeByte(nulls);
+            for (int j = i; j < Math.min(i + 8, count); j++) {
+                if (values_[j] != null) {
+                    writeColumn(out, j);
+                }
+            }
+        }
+    }
+
+    private void readColumn(DataInput in, int i) throws IOException {
+        int len;
+        ByteBuffer buffer;
+        switch (types_[i]) {
+        case BLOB:
+            len = WritableUtils.readVInt(in);
+            byte[] bytes = new byte[len];
+            in.readFully(bytes);
+            try {
+                values_[i] = new SerialBlob(bytes);
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+            break;
+        case BOOL:
+            setBool(i, in.readBoolean());
+            break;
+        case BYTE:
+            setByte(i, in.readByte());
+            break;
+        case DOUBLE:
+            setDouble(i, in.readDouble());
+            break;
+        case FLOAT:
+            setFloat(i, in.readFloat());
+            break;
+        case INTEGER:
+            setInteger(i, WritableUtils.readVInt(in));
+            break;
+        case LONG:
+            setLong(i, WritableUtils.readVLong(in));
+            break;
+        case SHORT:
+            setShort(i, (short) WritableUtils.readVInt(in));
+            break;
+        case STRING:
+            values_[i] = readString(in);
+            break;
+        case TIMESTAMP:
+            setTimestampMillis(i, WritableUtils.readVLong(in));
+            break;
+        case BOOL_ARRAY:
+            len = WritableUtils.readVInt(in);
+            boolean[] boolArray = reuse_ && values_[i] instanceof boolean[] && ((boolean[]) values_[i]).length == len
+                    ? (boolean[]) values_[i] : new boolean[len];
+            buffer = read(in, len);
+            for (int j = 0; j < len; j++) {
+                boolArray[j] = buffer.get(j) != 0;
+            }
+            values_[i] = boolArray;
+            break;
+        case BYTE_ARRAY:
+            len = WritableUtils.readVInt(in);
+            byte[] byteArray = reuse_ && values_[i] instanceof byte[] && ((byte[]) values_[i]).length == len
+                    ? (byte[]) values_[i] : new byte[len];
+            in.readFully(byteArray);
+            values_[i] = byteArray;
+            break;
+        case DOUBLE_ARRAY:
+            len = WritableUtils.readVInt(in);
+            double[] doubleArray = reuse_ && values_[i] instanceof double[] && ((double[]) values_[i]).length == len
+                    ? (double[]) values_[i] : new double[len];
+            read(in, len * 8).asDoubleBuffer().get(doubleArray);
+            values_[i] = doubleArray;
+            break;
+        case FLOAT_ARRAY:
+            len = WritableUtils.readVInt(in);
+            float[] floatArray = reuse_ && values_[i] instanceof float[] && ((float[]) values_[i]).length == len
+                    ? (float[]) values_[i] : new float[len];
+            read(in, len * 4).asFloatBuffer().get(floatArray);
+            values_[i] = floatArray;
+            break;
+        case INTEGER_ARRAY:
+            len = WritableUtils.readVInt(in);
+            int[] intArray = reuse_ && values_[i] instanceof int[] && ((int[]) values_[i]).length == len
+                    ? (int[]) values_[i] : new int[len];
+            read(in, len * 4).asIntBuffer().get(intArray);
+            values_[i] = intArray;
+            break;
+        case LONG_ARRAY:
+            len = WritableUtils.readVInt(in);
+            long[] longArray = reuse_ && values_[i] instanceof long[] && ((long[]) values_[i]).length == len
+                    ? (long[]) values_[i] : new long[len];
+            read(in, len * 8).asLongBuffer().get(longArray);
+            values_[i] = longArray;
+            break;
+        case SHORT_ARRAY:
+            len = WritableUtils.readVInt(in);
+            short[] shortArray = reuse_ && values_[i] instanceof short[] && ((short[]) values_[i]).length == len
+                    ? (short[]) values_[i] : new short[len];
+            read(in, len * 2).asShortBuffer().get(shortArray);
+            values_[i] = shortArray;
+            break;
+        case STRING_ARRAY:
+            len = WritableUtils.readVInt(in);
+            String[] stringArray = reuse_ && values_[i] instanceof String[] && ((String[]) values_[i]).length == len
+                    ? (String[]) values_[i] : new String[len];
+            for (int j = 0; j < len; j++) {
+                stringArray[j] = readString(in);
+            }
+            values_[i] = stringArray;
+            break;
+        case TIMESTAMP_ARRAY:
+            len = WritableUtils.readVInt(in);
+            boolean reuse = reuse_ && values_[i] instanceof Date[] && ((Date[]) values_[i]).length == len;
+            Date[] timestampArray = reuse ? (Date[]) values_[i] : new Date[len];
+            buffer = read(in, len * 8);
+            for (int j = 0; j < len; j++) {
+                if (reuse) {
+                    timestampArray[j].setTime(buffer.getLong(j * 8));
+                } else {
+                    timestampArray[j] = new Date(buffer.getLong(j * 8));
+                }
+            }
+            values_[i] = timestampArray;
+            break;
+        default:
+            throw new IOException("GSCompactRowWritable: Illegal type(" + types_[i] + ")");
+        }
+    }
+
+    private void writeColumn(DataOutput out, int i) throws IOException {
+        ByteBuffer buffer;
+        switch (types_[i]) {
+        case BLOB:
+            try {
+                Blob blob = (Blob) values_[i];
+                int len = (int) blob.length();
+                WritableUtils.writeVInt(out, len);
+                out.write(blob.getBytes(1, len));
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+            break;
+        case BOOL:
+            out.writeBoolean(getBool(i));
+            break;
+        case BYTE:
+            out.writeByte(getByte(i));
+            break;
+        case DOUBLE:
+            out.writeDouble(getDouble(i));
+            break;
+        case FLOAT:
+            out.writeFloat(getFloat(i));
+            break;
+        case INTEGER:
+            WritableUtils.writeVInt(out, getInteger(i));
+            break;
+        case LONG:
+            WritableUtils.writeVLong(out, getLong(i));
+            break;
+        case SHORT:
+            WritableUtils.writeVInt(out, getShort(i));
+            break;
+        case STRING:
+            writeString(out, getString(i));
+            break;
+        case TIMESTAMP:
+            WritableUtils.writeVLong(out, getTimestampMillis(i));
+            break;
+        case BOOL_ARRAY:
+            boolean[] boolArray = getBoolArray(i);
+            WritableUtils.writeVInt(out, boolArray.length);
+            buffer = allocate(boolArray.length);
+            for (int j = 0; j < boolArray.length; j++) {
+                buffer.put(j, (byte) (boolArray[j] ? 1 : 0));
+            }
+            out.write(buffer.array(), 0, boolArray.length);
+            break;
+        case BYTE_ARRAY:
+            byte[] byteArray = getByteArray(i);
+            WritableUtils.writeVInt(out, byteArray.length);
+            out.write(byteArray);
+            break;
+        case DOUBLE_ARRAY:
+            double[] doubleArray = getDoubleArray(i);
+            WritableUtils.writeVInt(out, doubleArray.length);
+            buffer = allocate(doubleArray.length * 8);
+            buffer.asDoubleBuffer().put(doubleArray);
+            out.write(buffer.array(), 0, doubleArray.length * 8);
+            break;
+        case FLOAT_ARRAY:
+            float[] floatArray = getFloatArray(i);
+            WritableUtils.writeVInt(out, floatArray.length);
+            buffer = allocate(floatArray.length * 4);
+            buffer.asFloatBuffer().put(floatArray);
+            out.write(buffer.array(), 0, floatArray.length * 4);
+            break;
+        case INTEGER_ARRAY:
+            int[] intArray = getIntegerArray(i);
+            WritableUtils.writeVInt(out, intArray.length);
+            buffer = allocate(intArray.length * 4);
+            buffer.asIntBuffer().put(intArray);
+            out.write(buffer.array(), 0, intArray.length * 4);
+            break;
+        case LONG_ARRAY:
+            long[] longArray = getLongArray(i);
+            WritableUtils.writeVInt(out, longArray.length);
+            buffer = allocate(longArray.length * 8);
+            buffer.asLongBuffer().put(longArray);
+            out.write(buffer.array(), 0, longArray.length * 8);
+            break;
+        case SHORT_ARRAY:
+            short[] shortArray = getShortArray(i);
+            WritableUtils.writeVInt(out, shortArray.length);
+            buffer = allocate(shortArray.length * 2);
+            buffer.asShortBuffer().put(shortArray);
+            out.write(buffer.array(), 0, shortArray.length * 2);
+            break;
+        case STRING_ARRAY:
+            String[] stringArray = getStringArray(i);
+            WritableUtils.writeVInt(out, stringArray.length);
+            for (String value : stringArray) {
+                writeString(out, value);
+            }
+            break;
+        case TIMESTAMP_ARRAY:
+            Date[] timestampArray = getTimestampArray(i);
+            WritableUtils.writeVInt(out, timestampArray.length);
+            buffer = allocate(timestampArray.length * 8);
+            for (int j = 0; j < timestampArray.length; j++) {
+                buffer.putLong(j * 8, timestampArray[j].getTime());
+            }
+            out.write(buffer.array(), 0, timestampArray.length * 8);
+            break;
+        default:
+            throw new IOException("GSCompactRowWritable: Illegal type(" + types_[i] + ")");
+        }
+    }
+
+    private String readString(DataInput in) throws IOException {
+        int len = WritableUtils.readVInt(in);
+        return new String(read(in, len).array(), 0, len, "UTF-8");
+    }
+
+    private void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes("UTF-8");
+        WritableUtils.writeVInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private ByteBuffer read(DataInput in, int len) throws IOException {
+        ByteBuffer buffer = allocate(len);
+        in.readFully(buffer.array(), 0, len);
+        return buffer;
+    }
+
+    private ByteBuffer allocate(int len) {
+        if (buffer_ == null || buffer_.capacity() < len) {
+            buffer_ = ByteBuffer.allocate(Math.max(len, 256));
+        }
+        buffer_.clear();
+        return buffer_;
+    }
+}
@@ -26,30 +26,47 @@ import javax.sql.rowset.serial.SerialBlob;
 
 import java.util.Date;
 
+import org.apache.hadoop.conf.Configurable;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.Writable;
-import org.apache.hadoop.io.VIntWritable;
-import org.apache.hadoop.io.VLongWritable;
+import org.apache.hadoop.io.WritableUtils;
 
 import com.toshiba.mwcloud.gs.ContainerInfo;
 import com.toshiba.mwcloud.gs.GSException;
 import com.toshiba.mwcloud.gs.GSType;
 import com.toshiba.mwcloud.gs.Row;
+import com.toshiba.mwcloud.gs.hadoop.conf.GDProperty;
 
 /**
  * <div lang="ja">
  * GridDBのRowオブジェクト用Writableです。<br/>
  * GSRowRecordReaderがオブジェクトを生成し、Mapタスクに値として渡されます。<br/>
  * また、MapReduceジョブがGridDBにデータを出力するときにもこのクラスを使用します。<br/>
- * そのときには、出力先のコンテナのスキーマに合致したカラム型の配列(GSType[])を与えてオブ ジェクトを生成します。
+ * そのときには、出力先のコンテナのスキーマに合致したカラム型の配列(GSType[])を与えてオブ ジェクトを生成します。<br/>
+ * デシリアライズ時には、カラム数が前のロウと同じ場合は内部の配列を再利用します。
+ * プロパティgs.row.reuseがtrueの場合は配列型のカラム値も再利用します。
  * </div><div lang="en">
  * Writable for Row object of GridDB generated by GSRowRecordReader and handed over as an input value to the Map task.<br/>
  * In addition, this class is used when a MapReduce job outputs data to GridDB as well.<br/>
- * In this case, assign a column-type array (GSType[]) matching the schema of the container of the output destination to generate the object.
+ * In this case, assign a column-type array (GSType[]) matching the schema of the container of the output destination to generate the object.<br/>
+ * When deserialized, the internal arrays are reused if the number of columns is the same as the previous row.
+ * Array column values are reused as well if the property "gs.row.reuse" is true.
  * </div>
  */
-public class GSRowWritable implements Writable {
+public class GSRowWritable implements Writable, Configurable {
     protected Object[] values_;
     protected GSType[] types_;
+    // Values of BOOL, BYTE, SHORT, INTEGER, LONG, FLOAT, DOUBLE and TIMESTAMP columns, valid when values_ holds PRIMITIVE
+    protected long[] primitives_;
+
+    private static final Object PRIMITIVE = new Object();
+
+    private Configuration conf_;
+
+    protected boolean reuse_ = false;
+
+    private byte[] buffer_;
 
     protected static final byte BLOB = 0x01;
     protected static final byte BOOL = 0x02;
@@ -85,6 +102,7 @@ public class GSRowWritable implements Writable {
     public GSRowWritable(GSType[] types) {
         values_ = new Object[types.length];
         types_ = new GSType[types.length];
+        primitives_ = new long[types.length];
         for (int i = 0; i < types.length; i++) {
             types_[i] = types[i];
         }
@@ -102,7 +120,28 @@ public class GSRowWritable implements Writable {
      * </div>
      */
     public Object getValue(int columnIndex) {
-        return values_[columnIndex];
+        if (values_[columnIndex] != PRIMITIVE) {
+            return values_[columnIndex];
+        }
+        long value = primitives_[columnIndex];
+        switch (types_[columnIndex]) {
+        case BOOL:
+            return value != 0;
+        case BYTE:
+            return (byte) value;
+        case SHORT:
+            return (short) value;
+        case INTEGER:
+            return (int) value;
+        case LONG:
+            return value;
+        case FLOAT:
+            return Float.intBitsToFloat((int) value);
+        case DOUBLE:
+            return Double.longBitsToDouble(value);
+        default:
+            return new Date(value);
+        }
     }
     /**
      * <div lang="ja">
@@ -117,7 +156,36 @@ public class GSRowWritable implements Writable {
      */
     public void getValues(Row row) throws GSException {
         for (int i = 0; i < values_.length; i++) {
-            row.setValue(i, values_[i]);
+            if (values_[i] != PRIMITIVE) {
+                row.setValue(i, values_[i]);
+                continue;
+            }
+            switch (types_[i]) {
+            case BOOL:
+                row.setBool(i, getBool(i));
+                break;
+            case BYTE:
+                row.setByte(i, getByte(i));
+                break;
+            case SHORT:
+                row.setShort(i, getShort(i));
+                break;
+            case INTEGER:
+                row.setInteger(i, getInteger(i));
+                break;
+            case LONG:
+                row.setLong(i, getLong(i));
+                break;
+            case FLOAT:
+                row.setFloat(i, getFloat(i));
+                break;
+            case DOUBLE:
+                row.setDouble(i, getDouble(i));
+                break;
+            default:
+                row.setTimestamp(i, getTimestamp(i));
+                break;
+            }
         }
     }
     /**
@@ -132,7 +200,25 @@ public class GSRowWritable implements Writable {
      * </div>
      */
     public void setValue(int columnIndex, Object value) {
-        values_[columnIndex] = value;
+        if (value instanceof Boolean) {
+            setBool(columnIndex, (Boolean) value);
+        } else if (value instanceof Byte) {
+            setByte(columnIndex, (Byte) value);
+        } else if (value instanceof Short) {
+            setShort(columnIndex, (Short) value);
+        } else if (value instanceof Integer) {
+            setInteger(columnIndex, (Integer) value);
+        } else if (value instanceof Long) {
+            setLong(columnIndex, (Long) value);
+        } else if (value instanceof Float) {
+            setFloat(columnIndex, (Float) value);
+        } else if (value instanceof Double) {
+            setDouble(columnIndex, (Double) value);
+        } else if (value instanceof Date) {
+            setTimestamp(columnIndex, (Date) value);
+        } else {
+            values_[columnIndex] = value;
+        }
     }
     /**
      * <div lang="ja">
@@ -150,7 +236,38 @@ public class GSRowWritable implements Writable {
             initialize(row.getSchema());
         }
         for (int i = 0; i < values_.length; i++) {
-            values_[i] = row.getValue(i);
+            copyColumn(row, i, i);
+        }
+    }
+    /**
+     * <div lang="ja">
+     * GridDBのRowオブジェクトの指定された番号のカラムの値を、指定された順にカラムに設定します。
+     * @param row GridDBのRowオブジェクト
+     * @param columnIndexes Rowオブジェクトのカラム番号の配列、全カラムを設定する場合はnull
+     * @throws GSException GridDBで例外が発生しました
+     * </div><div lang="en">
+     * Set the values of the specified column numbers of the GridDB Row object in the columns in the specified order.
+     * @param row GridDB Row object
+     * @param columnIndexes array of column numbers of the Row object or null to set all columns
+     * @throws GSException an exception occurred in Row object
+     * </div>
+     */
+    public void setValues(Row row, int[] columnIndexes) throws GSException {
+        if (columnIndexes == null) {
+            setValues(row);
+            return;
+        }
+        if (values_ == null || values_.length != columnIndexes.length) {
+            ContainerInfo containerInfo = row.getSchema();
+            values_ = new Object[columnIndexes.length];
+            types_ = new GSType[columnIndexes.length];
+            primitives_ = new long[columnIndexes.length];
+            for (int i = 0; i < columnIndexes.length; i++) {
+                types_[i] = containerInfo.getColumnInfo(columnIndexes[i]).getType();
+            }
+        }
+        for (int i = 0; i < columnIndexes.length; i++) {
+            copyColumn(row, columnIndexes[i], i);
         }
     }
 
@@ -194,6 +311,9 @@ public class GSRowWritable implements Writable {
      * </div>
      */
     public boolean getBool(int columnIndex) {
+        if (values_[columnIndex] == PRIMITIVE) {
+            return primitives_[columnIndex] != 0;
+        }
         return (Boolean) values_[columnIndex];
     }
     /**
@@ -208,7 +328,9 @@ public class GSRowWritable implements Writable {
      * </div>
      */
     public void setBool(int columnIndex, boolean value) {
-        values_[columnIndex] = value;
+        if (! setPrimitive(columnIndex, GSType.BOOL, value ? 1 : 0)) {
+            values_[columnIndex] = value;
+        }
     }
     /**
      * <div lang="ja">
@@ -222,6 +344,9 @@ public class GSRowWritable implements Writable {
      * </div>
      */
     public byte getByte(int columnIndex) {
+        if (values_[columnIndex] == PRIMITIVE) {
+            return (byte) primitives_[columnIndex];
+        }
         return (Byte) values_[columnIndex];
     }
     /**
@@ -236,7 +361,9 @@ public class GSRowWritable implements Writable {
      * </div>
      */
     public void setByte(int columnIndex, byte value) {
-        values_[columnIndex] = value;
+        if (! setPrimitive(columnIndex, GSType.BYTE, value)) {
+            values_[columnIndex] = value;
+        }
     }
     /**
      * <div lang="ja">
@@ -250,6 +377,9 @@ public class GSRowWritable implements Writable {
      * </div>
      */
     public double getDouble(int columnIndex) {
+        if (values_[columnIndex] == PRIMITIVE) {
+            return Double.longBitsToDouble(primitives_[columnIndex]);
+        }
         return (Double) values_[columnIndex];
     }
     /**
@@ -264,7 +394,9 @@ public class GSRowWritable implements Writable {
      * </div>
      */
     public void setDouble(int columnIndex, double value) {
-        values_[columnIndex] = value;
+        if (! setPrimitive(columnIndex, GSType.DOUBLE, Double.doubleToRawLongBits(value))) {
+            values_[columnIndex] = value;
+        }
     }
     /**
      * <div lang="ja">
@@ -278,6 +410,9 @@ public class GSRowWritable implements Writable {
      * </div>
      */
     public float getFloat(int columnIndex) {
+        if (values_[columnIndex] == PRIMITIVE) {
+            return Float.intBitsToFloat((int) primitives_[columnIndex]);
+        }
         return (Float) values_[columnIndex];
     }
     /**
@@ -292,7 +427,9 @@ public class GSRowWritable implements Writable {
      * </div>
      */
     public void setFloat(int columnIndex, float value) {
-        values_[columnIndex] = value;
+        if (! setPrimitive(columnIndex, GSType.FLOAT, Float.floatToRawIntBits(value))) {
+            values_[columnIndex] = value;
+        }
     }
     /**
      * <div lang="ja">
@@ -306,6 +443,9 @@ public class GSRowWritable implements Writable {
      * </div>
      */
     public int getInteger(int columnIndex) {
+        if (values_[columnIndex] == PRIMITIVE) {
+            return (int) primitives_[columnIndex];
+        }
         return (Integer) values_[columnIndex];
     }
     /**
@@ -320,7 +460,9 @@ public class GSRowWritable implements Writable {
      * </div>
      */
     public void setInteger(int columnIndex, int value) {
-        values_[columnIndex] = value;
+        if (! setPrimitive(columnIndex, GSType.INTEGER, value)) {
+            values_[columnIndex] = value;
+        }
     }
     /**
      * <div lang="ja">
@@ -334,6 +476,9 @@ public class GSRowWritable implements Writable {
      * </div>
      */
     public long getLong(int columnIndex) {
+        if (values_[columnIndex] == PRIMITIVE) {
+            return primitives_[columnIndex];
+        }
         return (Long) values_[columnIndex];
     }
     /**
@@ -348,7 +493,9 @@ public class GSRowWritable implements Writable {
      * </div>
      */
     public void setLong(int columnIndex, long value) {
-        values_[columnIndex] = value;
+        if (! setPrimitive(columnIndex, GSType.LONG, value)) {
+            values_[columnIndex] = value;
+        }
     }
     /**
      * <div lang="ja">
@@ -362,6 +509,9 @@ public class GSRowWritable implements Writable {
      * </div>
      */
     public short getShort(int columnIndex) {
+        if (values_[columnIndex] == PRIMITIVE) {
+            return (short) primitives_[columnIndex];
+        }
         return (Short) values_[columnIndex];
     }
     /**
@@ -376,7 +526,9 @@ public class GSRowWritable implements Writable {
      * </div>
      */
     public void setShort(int columnIndex, short value) {
-        values_[columnIndex] = value;
+        if (! setPrimitive(columnIndex, GSType.SHORT, value)) {
+            values_[columnIndex] = value;
+        }
     }
     /**
      * <div lang="ja">
@@ -418,6 +570,9 @@ public class GSRowWritable implements Writable {
      * </div>
      */
     public Date getTimestamp(int columnIndex) {
+        if (values_[columnIndex] == PRIMITIVE) {
+            return new Date(primitives_[columnIndex]);
+        }
         return (Date) values_[columnIndex];
     }
     /**
@@ -432,7 +587,42 @@ public class GSRowWritable implements Writable {
      * </div>
      */
     public void setTimestamp(int columnIndex, Date value) {
-        values_[columnIndex] = value;
+        if (value == null || ! setPrimitive(columnIndex, GSType.TIMESTAMP, value.getTime())) {
+            values_[columnIndex] = value;
+        }
+    }
+    /**
+     * <div lang="ja">
+     * Date型のカラム値をミリ秒単位の通算時刻で返します。Dateオブジェクトは生成しません。
+     * @param columnIndex カラム番号(0以上かつカラム数未満の値)
+     * @return Date型のカラム値のミリ秒単位の通算時刻
+     * </div><div lang="en">
+     * Return the value of the Date column as the elapsed time in milliseconds without creating a Date object.
+     * @param columnIndex column number (a value of 0 or higher and less than the number of columns)
+     * @return elapsed time in milliseconds of the value of Date column
+     * </div>
+     */
+    public long getTimestampMillis(int columnIndex) {
+        if (values_[columnIndex] == PRIMITIVE) {
+            return primitives_[columnIndex];
+        }
+        return ((Date) values_[columnIndex]).getTime();
+    }
+    /**
+     * <div lang="ja">
+     * ミリ秒単位の通算時刻をDate型のカラムに設定します。Dateオブジェクトは生成しません。
+     * @param columnIndex カラム番号(0以上かつカラム数未満の値)
+     * @param value ミリ秒単位の通算時刻
+     * </div><div lang="en">
+     * Set the elapsed time in milliseconds in the Date column without creating a Date object.
+     * @param columnIndex column number (a value of 0 or higher and less than the number of columns)
+     * @param value elapsed time in milliseconds
+     * </div>
+     */
+    public void setTimestampMillis(int columnIndex, long value) {
+        if (! setPrimitive(columnIndex, GSType.TIMESTAMP, value)) {
+            values_[columnIndex] = new Date(value);
+        }
     }
     /**
      * <div lang="ja">
@@ -687,6 +877,75 @@ public class GSRowWritable implements Writable {
         values_[columnIndex] = value;
     }
 
+    /**
+     * <div lang="ja">
+     * GridDBに書き込む場合のロウデータの推定サイズを返します。文字列はUTF-8でのバイト数で見積もります。
+     * @return 推定サイズ(バイト数)
+     * @throws GSException BLOB型のカラム値の長さを取得できませんでした
+     * </div><div lang="en">
+     * Return the estimated size of row data written to GridDB. Strings are estimated by their length in UTF-8.
+     * @return estimated size in bytes
+     * @throws GSException the length of a BLOB column value could not be acquired
+     * </div>
+     */
+    public long getEstimatedSize() throws GSException {
+        long size = 0;
+        for (int i = 0; i < values_.length; i++) {
+            Object value = values_[i];
+            if (value == PRIMITIVE) {
+                switch (types_[i]) {
+                case BOOL:
+                case BYTE:
+                    size += 1;
+                    break;
+                case SHORT:
+                    size += 2;
+                    break;
+                case INTEGER:
+                case FLOAT:
+                    size += 4;
+                    break;
+                default:
+                    size += 8;
+                    break;
+                }
+            } else if (value instanceof String) {
+                size += 4 + Text.utf8Length((String) value);
+            } else if (value instanceof Blob) {
+                try {
+                    size += 4 + ((Blob) value).length();
+                } catch (SQLException e) {
+                    throw new GSException(e);
+                }
+            } else if (value instanceof boolean[]) {
+                size += 4 + ((boolean[]) value).length;
+            } else if (value instanceof byte[]) {
+                size += 4 + ((byte[]) value).length;
+            } else if (value instanceof short[]) {
+                size += 4 + ((short[]) value).length * 2L;
+            } else if (value instanceof int[]) {
+                size += 4 + ((int[]) value).length * 4L;
+            } else if (value instanceof float[]) {
+                size += 4 + ((float[]) value).length * 4L;
+            } else if (value instanceof long[]) {
+                size += 4 + ((long[]) value).length * 8L;
+            } else if (value instanceof double[]) {
+                size += 4 + ((double[]) value).length * 8L;
+            } else if (value instanceof Date[]) {
+                size += 4 + ((Date[]) value).length * 8L;
+            } else if (value instanceof String[]) {
+                size += 4;
+                for (String element : (String[]) value) {
+                    size += 4 + Text.utf8Length(element);
+                }
+            } else if (value != null) {
+                // Boxed values of primitive types and TIMESTAMP
+                size += 8;
+            }
+        }
+        return size;
+    }
+
     /*
      * (non-Javadoc)
      * @see org.apache.hadoop.io.Writable#readFields(java.io.DataInput)
@@ -694,8 +953,11 @@ public class GSRowWritable implements Writable {
     @Override
     public void readFields(DataInput in) throws IOException {
         int size = in.readInt();
-        values_ = new Object[size];
-        types_ = new GSType[size];
+        if (values_ == null || values_.length != size || primitives_ == null) {
+            values_ = new Object[size];
+            types_ = new GSType[size];
+            primitives_ = new long[size];
+        }
         for (int i = 0; i < size; i++) {
             readColumn(in, i);
         }
@@ -711,6 +973,23 @@ public class GSRowWritable implements Writable {
             writeColumn(out, i);
         }
     }
+    /*
+     * (non-Javadoc)
+     * @see org.apache.hadoop.conf.Configurable#setConf(org.apache.hadoop.conf.Configuration)
+     */
+    @Override
+    public void setConf(Configuration conf) {
+        conf_ = conf;
+        reuse_ = conf != null && Boolean.parseBoolean(GDProperty.GS_ROW_REUSE.get(conf));
+    }
+    /*
+     * (non-Javadoc)
+     * @see org.apache.hadoop.conf.Configurable#getConf()
+     */
+    @Override
+    public Configuration getConf() {
+        return conf_;
+    }
     /*
      * (non-Javadoc)
      * @see java.lang.Object#hashCode()
@@ -718,7 +997,8 @@ public class GSRowWritable implements Writable {
     @Override
     public int hashCode() {
         int hash = 1;
-        for (Object column : values_) {
+        for (int i = 0; i < values_.length; i++) {
+            Object column = getValue(i);
             if (column != null) {
                 hash = hash * 31 + column.hashCode();
             }
@@ -732,8 +1012,8 @@ public class GSRowWritable implements Writable {
     @Override
     public String toString() {
         StringBuffer sb = new StringBuffer();
-        for (Object column : values_) {
-            sb.append(column + "\t");
+        for (int i = 0; i < values_.length; i++) {
+            sb.append(getValue(i) + "\t");
         }
         return sb.toString();
     }
@@ -742,11 +1022,68 @@ public class GSRowWritable implements Writable {
         int count = containerInfo.getColumnCount();
         values_ = new Object[count];
         types_ = new GSType[count];
+        primitives_ = new long[count];
         for (int i = 0; i < count; i++) {
             types_[i] = containerInfo.getColumnInfo(i).getType();
         }
     }
 
+    private boolean setPrimitive(int i, GSType type, long value) {
+        if (types_[i] != type) {
+            return false;
+        }
+        primitives_[i] = value;
+        values_[i] = PRIMITIVE;
+        return true;
+    }
+
+    private void copyColumn(Row row, int column, int i) throws GSException {
+        switch (types_[i]) {
+        case BOOL:
+        case BYTE:
+        case SHORT:
+        case INTEGER:
+        case LONG:
+        case FLOAT:
+        case DOUBLE:
+        case TIMESTAMP:
+            break;
+        default:
+            values_[i] = row.getValue(column);
+            return;
+        }
+        if (row.isNull(column)) {
+            values_[i] = null;
+            return;
+        }
+        switch (types_[i]) {
+        case BOOL:
+            setBool(i, row.getBool(column));
+            break;
+        case BYTE:
+            setByte(i, row.getByte(column));
+            break;
+        case SHORT:
+            setShort(i, row.getShort(column));
+            break;
+        case INTEGER:
+            setInteger(i, row.getInteger(column));
+            break;
+        case LONG:
+            setLong(i, row.getLong(column));
+            break;
+        case FLOAT:
+            setFloat(i, row.getFloat(column));
+            break;
+        case DOUBLE:
+            setDouble(i, row.getDouble(column));
+            break;
+        default:
+            setTimestamp(i, row.getTimestamp(column));
+            break;
+        }
+    }
+
     private void readColumn(DataInput in, int i) throws IOException {
         byte type = in.readByte();
         switch (type) {
@@ -756,35 +1093,31 @@ public class GSRowWritable implements Writable {
             break;
         case BOOL:
             types_[i] = GSType.BOOL;
-            values_[i] = in.readBoolean();
+            setBool(i, in.readBoolean());
             break;
         case BYTE:
             types_[i] = GSType.BYTE;
-            values_[i] = in.readByte();
+            setByte(i, in.readByte());
             break;
         case DOUBLE:
             types_[i] = GSType.DOUBLE;
-            values_[i] = in.readDouble();
+            setDouble(i, in.readDouble());
             break;
         case FLOAT:
             types_[i] = GSType.FLOAT;
-            values_[i] = in.readFloat();
+            setFloat(i, in.readFloat());
             break;
         case INTEGER:
             types_[i] = GSType.INTEGER;
-            VIntWritable vint = new VIntWritable();
-            vint.readFields(in);
-            values_[i] = vint.get();
+            setInteger(i, WritableUtils.readVInt(in));
             break;
         case LONG:
             types_[i] = GSType.LONG;
-            VLongWritable vlong = new VLongWritable();
-            vlong.readFields(in);
-            values_[i] = vlong.get();
+            setLong(i, WritableUtils.readVLong(in));
             break;
         case SHORT:
             types_[i] = GSType.SHORT;
-            values_[i] = in.readShort();
+            setShort(i, in.readShort());
             break;
         case STRING:
             types_[i] = GSType.STRING;
@@ -792,43 +1125,43 @@ public class GSRowWritable implements Writable {
             break;
         case TIMESTAMP:
             types_[i] = GSType.TIMESTAMP;
-            values_[i] = new Date(in.readLong());
+            setTimestampMillis(i, in.readLong());
             break;
         case BOOL_ARRAY:
             types_[i] = GSType.BOOL_ARRAY;
-            values_[i] = readBoolArray(in);
+            values_[i] = readBoolArray(in, values_[i]);
             break;
         case BYTE_ARRAY:
             types_[i] = GSType.BYTE_ARRAY;
-            values_[i] = readByteArray(in);
+            values_[i] = readByteArray(in, values_[i]);
             break;
         case DOUBLE_ARRAY:
             types_[i] = GSType.DOUBLE_ARRAY;
-            values_[i] = readDoubleArray(in);
+            values_[i] = readDoubleArray(in, values_[i]);
             break;
         case FLOAT_ARRAY:
             types_[i] = GSType.FLOAT_ARRAY;
-            values_[i] = readFloatArray(in);
+            values_[i] = readFloatArray(in, values_[i]);
             break;
         case INTEGER_ARRAY:
             types_[i] = GSType.INTEGER_ARRAY;
-            values_[i] = readIntegerArray(in);
+            values_[i] = readIntegerArray(in, values_[i]);
             break;
         case LONG_ARRAY:
             types_[i] = GSType.LONG_ARRAY;
-            values_[i] = readLongArray(in);
+            values_[i] = readLongArray(in, values_[i]);
             break;
         case SHORT_ARRAY:
             types_[i] = GSType.SHORT_ARRAY;
-            values_[i] = readShortArray(in);
+            values_[i] = readShortArray(in, values_[i]);
             break;
         case STRING_ARRAY:
             types_[i] = GSType.STRING_ARRAY;
-            values_[i] = readStringArray(in);
+            values_[i] = readStringArray(in, values_[i]);
             break;
         case TIMESTAMP_ARRAY:
             types_[i] = GSType.TIMESTAMP_ARRAY;
-            values_[i] = readTimestampArray(in);
+            values_[i] = readTimestampArray(in, values_[i]);
             break;
         default:
             throw new IOException();
@@ -848,85 +1181,138 @@ public class GSRowWritable implements Writable {
 
     private String readString(DataInput in) throws IOException {
         int len = in.readInt();
-        byte[] buffer = new byte[len];
-        in.readFully(buffer);
-        return new String(buffer, "UTF-8");
+        return new String(readBuffer(in, len), 0, len, "UTF-8");
     }
 
-    private boolean[] readBoolArray(DataInput in) throws IOException {
+    private byte[] readBuffer(DataInput in, int len) throws IOException {
+        if (buffer_ == null || buffer_.length < len) {
+            buffer_ = new byte[Math.max(len, 64)];
+        }
+        in.readFully(buffer_, 0, len);
+        return buffer_;
+    }
+
+    private boolean[] readBoolArray(DataInput in, Object value) throws IOException {
         int len = in.readInt();
-        boolean[] buffer = new boolean[len];
+        boolean[] buffer;
+        if (reuse_ && value instanceof boolean[] && ((boolean[]) value).length == len) {
+            buffer = (boolean[]) value;
+        } else {
+            buffer = new boolean[len];
+        }
         for (int i = 0; i < len; i++) {
             buffer[i] = in.readBoolean();
         }
         return buffer;
     }
 
-    private byte[] readByteArray(DataInput in) throws IOException {
+    private byte[] readByteArray(DataInput in, Object value) throws IOException {
         int len = in.readInt();
-        byte[] buffer = new byte[len];
+        byte[] buffer;
+        if (reuse_ && value instanceof byte[] && ((byte[]) value).length == len) {
+            buffer = (byte[]) value;
+        } else {
+            buffer = new byte[len];
+        }
         for (int i = 0; i < len; i++) {
             buffer[i] = in.readByte();
         }
         return buffer;
     }
 
-    private double[] readDoubleArray(DataInput in) throws IOException {
+    private double[] readDoubleArray(DataInput in, Object value) throws IOException {
         int len = in.readInt();
-        double[] buffer = new double[len];
+        double[] buffer;
+        if (reuse_ && value instanceof double[] && ((double[]) value).length == len) {
+            buffer = (double[]) value;
+        } else {
+            buffer = new double[len];
+        }
         for (int i = 0; i < len; i++) {
             buffer[i] = in.readDouble();
         }
         return buffer;
     }
 
-    private float[] readFloatArray(DataInput in) throws IOException {
+    private float[] readFloatArray(DataInput in, Object value) throws IOException {
         int len = in.readInt();
-        float[] buffer = new float[len];
+        float[] buffer;
+        if (reuse_ && value instanceof float[] && ((float[]) value).length == len) {
+            buffer = (float[]) value;
+        } else {
+            buffer = new float[len];
+        }
         for (int i = 0; i < len; i++) {
             buffer[i] = in.readFloat();
         }
         return buffer;
     }
 
-    private int[] readIntegerArray(DataInput in) throws IOException {
+    private int[] readIntegerArray(DataInput in, Object value) throws IOException {
         int len = in.readInt();
-        int[] buffer = new int[len];
+        int[] buffer;
+        if (reuse_ && value instanceof int[] && ((int[]) value).length == len) {
+            buffer = (int[]) value;
+        } else {
+            buffer = new int[len];
+        }
         for (int i = 0; i < len; i++) {
             buffer[i] = in.readInt();
         }
         return buffer;
     }
 
-    private long[] readLongArray(DataInput in) throws IOException {
+    private long[] readLongArray(DataInput in, Object value) throws IOException {
         int len = in.readInt();
-        long[] buffer = new long[len];
+        long[] buffer;
+        if (reuse_ && value instanceof long[] && ((long[]) value).length == len) {
+            buffer = (long[]) value;
+        } else {
+            buffer = new long[len];
+        }
         for (int i = 0; i < len; i++) {
             buffer[i] = in.readLong();
         }
         return buffer;
     }
 
-    private short[] readShortArray(DataInput in) throws IOException {
+    private short[] readShortArray(DataInput in, Object value) throws IOException {
         int len = in.readInt();
-        short[] buffer = new short[len];
+        short[] buffer;
+        if (reuse_ && value instanceof short[] && ((short[]) value).length == len) {
+            buffer = (short[]) value;
+        } else {
+            buffer = new short[len];
+        }
         for (int i = 0; i < len; i++) {
             buffer[i] = in.readShort();
         }
         return buffer;
     }
 
-    private String[] readStringArray(DataInput in) throws IOException {
+    private String[] readStringArray(DataInput in, Object value) throws IOException {
         int len = in.readInt();
-        String[] buffer = new String[len];
+        String[] buffer;
+        if (reuse_ && value instanceof String[] && ((String[]) value).length == len) {
+            buffer = (String[]) value;
+        } else {
+            buffer = new String[len];
+        }
         for (int i = 0; i < len; i++) {
             buffer[i] = readString(in);
         }
         return buffer;
     }
 
-    private Date[] readTimestampArray(DataInput in) throws IOException {
+    private Date[] readTimestampArray(DataInput in, Object value) throws IOException {
         int len = in.readInt();
+        if (reuse_ && value instanceof Date[] && ((Date[]) value).length == len) {
+            Date[] buffer = (Date[]) value;
+            for (int i = 0; i < len; i++) {
+                buffer[i].setTime(in.readLong());
+            }
+            return buffer;
+        }
         Date[] buffer = new Date[len];
         for (int i = 0; i < len; i++) {
             buffer[i] = new Date(in.readLong());
@@ -942,31 +1328,31 @@ public class GSRowWritable implements Writable {
             break;
         case BOOL:
             out.writeByte(BOOL);
-            out.writeBoolean((Boolean) values_[i]);
+            out.writeBoolean(getBool(i));
             break;
         case BYTE:
             out.writeByte(BYTE);
-            out.writeByte((Byte) values_[i]);
+            out.writeByte(getByte(i));
             break;
         case DOUBLE:
             out.writeByte(DOUBLE);
-            out.writeDouble((Double) values_[i]);
+            out.writeDouble(getDouble(i));
             break;
         case FLOAT:
             out.writeByte(FLOAT);
-            out.writeFloat((Float) values_[i]);
+            out.writeFloat(getFloat(i));
             break;
         case INTEGER:
             out.writeByte(INTEGER);
-            new VIntWritable((Integer) values_[i]).write(out);
+            WritableUtils.writeVInt(out, getInteger(i));
             break;
         case LONG:
             out.writeByte(LONG);
-            new VLongWritable((Long) values_[i]).write(out);
+            WritableUtils.writeVLong(out, getLong(i));
             break;
         case SHORT:
             out.writeByte(SHORT);
-            out.writeShort((Short) values_[i]);
+            out.writeShort(getShort(i));
             break;
         case STRING:
             out.writeByte(STRING);
@@ -974,7 +1360,7 @@ public class GSRowWritable implements Writable {
             break;
         case TIMESTAMP:
             out.writeByte(TIMESTAMP);
-            out.writeLong(((Date) values_[i]).getTime());
+            out.writeLong(getTimestampMillis(i));
             break;
         case BOOL_ARRAY:
             out.writeByte(BOOL_ARRAY);
@@ -0,0 +1,151 @@
+/*
+   Copyright (c) 2016 TOSHIBA CORPORATION.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.toshiba.mwcloud.gs.hadoop.mapred;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordReader;
+
+import static com.toshiba.mwcloud.gs.hadoop.conf.GDProperty.*;
+
+import com.toshiba.mwcloud.gs.hadoop.conf.GDPropertyUtils;
+import com.toshiba.mwcloud.gs.hadoop.io.GSColumnBatchWritable;
+import com.toshiba.mwcloud.gs.hadoop.util.GDRecordReader;
+
+import com.toshiba.mwcloud.gs.GSType;
+
+/**
+ * <div lang="ja">
+ * 複数のロウのカラム値をカラム毎の配列で読み込むGridDB用RecordReaderクラスです。<br/>
+ * 1回の読み込みでプロパティgs.input.batch.rowsで指定したロウ数までのロウを読み込みます。
+ * </div><div lang="en">
+ * GridDB RecordReader class reading the column values of multiple rows in an array for each column.<br/>
+ * Each read acquires up to the number of rows specified by the property gs.input.batch.rows.
+ * </div>
+ */
+public class GSColumnBatchRecordReader implements RecordReader<NullWritable, GSColumnBatchWritable> {
+    private GDRecordReader reader_;
+
+    private Configuration conf_;
+
+    private int batchRows_;
+
+    private GSType[] types_;
+
+    /**
+     * <div lang="ja">
+     * コンストラクタ
+     * @param conf Configurationオブジェクト
+     * @param split GSContainerSplitオブジェクト
+     * @throws IOException GridDBで例外が発生しました
+     * </div><div lang="en">
+     * Constructor
+     * @param conf Configuration object
+     * @param split GSContainerSplit object
+     * @throws IOException an exception occurred in GridDB
+     * </div>
+     */
+    public GSColumnBatchRecordReader(JobConf conf, GSContainerSplit split) throws IOException {
+        reader_ = new GDRecordReader(split, conf);
+        conf_ = conf;
+        batchRows_ = GDPropertyUtils.getInteger(conf, GS_INPUT_BATCH_ROWS);
+        types_ = null;
+    }
+
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapred.RecordReader#getPos()
+     */
+    @Override
+    public long getPos() throws IOException {
+        return reader_.getPos();
+    }
+
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapred.RecordReader#getProgress()
+     */
+    @Override
+    public float getProgress() throws IOException {
+        return reader_.getProgress();
+    }
+
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapred.RecordReader#close()
+     */
+    @Override
+    public void close() throws IOException {
+        reader_.close();
+    }
+
+    /**
+     * <div lang="ja">
+     * GridDBから次のロウの集まりを取得します。
+     * @param key 使用しません
+     * @param value 取得したロウのカラム値を格納するためのGSColumnBatchWritableオブジェクト
+     * @return ロウを1つ以上取得できればtrue、取得できるデータが残っていなければfalse
+     * @throws IOException ロウの取得でエラーが発生しました
+     * </div><div lang="en">
+     * Get the next batch of rows from GridDB.
+     * @param key not used
+     * @param value GSColumnBatchWritable object to store the column values of the acquired rows
+     * @return true if one or more rows can be acquired and false if no acquirable data remains
+     * @throws IOException an error occurred in acquiring rows
+     * </div>
+     */
+    @Override
+    public boolean next(NullWritable key, GSColumnBatchWritable value) throws IOException {
+        if (! reader_.hasNext()) {
+            return false;
+        }
+        if (types_ == null) {
+            List<String> typeList = GDPropertyUtils.getPropertyList(conf_, GS_INPUT_COLUMN_TYPE_LIST);
+            types_ = new GSType[typeList.size()];
+            for (int i = 0; i < types_.length; i++) {
+                types_[i] = GSType.valueOf(typeList.get(i));
+            }
+        }
+
+        value.reset(types_, batchRows_);
+        while (! value.isFull() && reader_.hasNext()) {
+            value.addRow(reader_.getRowSet().nextRow(), reader_.getColumnIndexes());
+        }
+        return true;
+    }
+
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapred.RecordReader#createKey()
+     */
+    @Override
+    public NullWritable createKey() {
+        return NullWritable.get();
+    }
+
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapred.RecordReader#createValue()
+     */
+    @Override
+    public GSColumnBatchWritable createValue() {
+        return new GSColumnBatchWritable();
+    }
+}
@@ -19,11 +19,26 @@ package com.toshiba.mwcloud.gs.hadoop.mapred;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
-
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
 import org.apache.hadoop.mapred.InputSplit;
 
+import com.toshiba.mwcloud.gs.ColumnInfo;
+import com.toshiba.mwcloud.gs.ContainerInfo;
+import com.toshiba.mwcloud.gs.ContainerType;
+import com.toshiba.mwcloud.gs.GSType;
+
 /**
  * <div lang="ja">
  * GridDB用のInputSplitです。
@@ -35,19 +50,31 @@ public class GSContainerSplit implements InputSplit, Comparable<GSContainerSplit
     private int containerInfoLength_;
 
     private String[] partitionHost_;
+    private String[][] partitionHostList_;
     private int[] containerNameListLength_;
     private String[][] containerNameList_;
+    private byte[][] encodedContainerNameList_;
+
+    private boolean keyRangeAssigned_;
+    private Long keyRangeStart_;
+    private Long keyRangeEnd_;
+
+    private long rowCount_ = -1;
+
+    private ContainerInfo schema_;
 
     public GSContainerSplit() {
     }
 
     /**
      * <div lang="ja">
-     * 入力対象のパーティションとコンテナの情報からInputSplitを生成します。
+     * 入力対象のパーティションとコンテナの情報からInputSplitを生成します。<br/>
+     * シリアライズの前後で順序が変わらないように、パーティション毎のコンテナ名は昇順に並べ替えます。
      * @param partitionHostList 入力対象のパーティション毎に選択されたホスト名配列
      * @param containerNameList パーティション毎に作成された入力対象のコンテナ名配列
      * </div><div lang="en">
-     * Generate InputSplits from containers and partitions for input processing.
+     * Generate InputSplits from containers and partitions for input processing.<br/>
+     * The container names of each partition are sorted in ascending order, so that the order is the same before and after serialization.
      * @param partitionHostList host name array selected for each partition
      * @param containerNameList container name array of each partition
      * </div>
@@ -55,7 +82,18 @@ public class GSContainerSplit implements InputSplit, Comparable<GSContainerSplit
     public GSContainerSplit(String[] partitionHostList, String[][] containerNameList) {
         containerInfoLength_ = containerNameList.length;
         partitionHost_ = partitionHostList;
-        containerNameList_ = containerNameList;
+        containerNameList_ = new String[containerNameList.length][];
+        for (int i = 0; i < containerNameList.length; i++) {
+            if (containerNameList[i] != null) {
+                containerNameList_[i] = containerNameList[i].clone();
+                Arrays.sort(containerNameList_[i]);
+            }
+        }
+
+        partitionHostList_ = new String[partitionHostList.length][];
+        for (int i = 0; i < partitionHostList.length; i++) {
+            partitionHostList_[i] = new String[] { partitionHostList[i] };
+        }
 
         containerNameListLength_ = null;
         if (containerNameList_ != null) {
@@ -66,6 +104,107 @@ public class GSContainerSplit implements InputSplit, Comparable<GSContainerSplit
                 }
             }
         }
+
+        keyRangeAssigned_ = false;
+        keyRangeStart_ = null;
+        keyRangeEnd_ = null;
+    }
+
+    /**
+     * <div lang="ja">
+     * 1つのコンテナのロウキーの範囲を入力対象とするInputSplitを生成します。<br/>
+     * 範囲は開始値を含み、終了値を含みません。nullを指定した場合は、その方向の範囲を制限しません。
+     * @param partitionHost 入力対象のパーティションに対して選択されたホスト名
+     * @param containerName 入力対象のコンテナ名
+     * @param keyRangeStart ロウキーの範囲の開始値(INTEGER/LONG型はその値、TIMESTAMP型はミリ秒単位の時刻)
+     * @param keyRangeEnd ロウキーの範囲の終了値(INTEGER/LONG型はその値、TIMESTAMP型はミリ秒単位の時刻)
+     * </div><div lang="en">
+     * Generate an InputSplit for a row key range of a single container.<br/>
+     * The range includes the start value and excludes the end value. A null bound leaves that side of the range open.
+     * @param partitionHost host name selected for the partition of the container
+     * @param containerName container name for input processing
+     * @param keyRangeStart start of the row key range (the value itself for INTEGER/LONG keys, milliseconds for TIMESTAMP keys)
+     * @param keyRangeEnd end of the row key range (the value itself for INTEGER/LONG keys, milliseconds for TIMESTAMP keys)
+     * </div>
+     */
+    public GSContainerSplit(String partitionHost, String containerName, Long keyRangeStart, Long keyRangeEnd) {
+        this(new String[] { partitionHost }, containerName, keyRangeStart, keyRangeEnd);
+    }
+
+    /**
+     * <div lang="ja">
+     * 入力対象のパーティションとコンテナの情報からInputSplitを生成します。<br/>
+     * パーティション毎に、レプリカを保持するホスト名を優先順に指定します。先頭のホストがそのパーティションに対して選択されたホストとなります。
+     * @param partitionHostList 入力対象のパーティション毎の優先順のホスト名配列
+     * @param containerNameList パーティション毎に作成された入力対象のコンテナ名配列
+     * </div><div lang="en">
+     * Generate InputSplits from containers and partitions for input processing.<br/>
+     * The host names holding replicas of each partition are specified in order of preference. The first host is the one selected for the partition.
+     * @param partitionHostList host name array of each partition in order of preference
+     * @param containerNameList container name array of each partition
+     * </div>
+     */
+    public GSContainerSplit(String[][] partitionHostList, String[][] containerNameList) {
+        this(getPreferredHosts(partitionHostList), containerNameList);
+
+        partitionHostList_ = partitionHostList;
+    }
+
+    /**
+     * <div lang="ja">
+     * 1つのコンテナのロウキーの範囲を入力対象とするInputSplitを生成します。<br/>
+     * 範囲は開始値を含み、終了値を含みません。nullを指定した場合は、その方向の範囲を制限しません。
+     * @param partitionHostList 入力対象のパーティションのレプリカを保持する優先順のホスト名配列
+     * @param containerName 入力対象のコンテナ名
+     * @param keyRangeStart ロウキーの範囲の開始値(INTEGER/LONG型はその値、TIMESTAMP型はミリ秒単位の時刻)
+     * @param keyRangeEnd ロウキーの範囲の終了値(INTEGER/LONG型はその値、TIMESTAMP型はミリ秒単位の時刻)
+     * </div><div lang="en">
+     * Generate an InputSplit for a row key range of a single container.<br/>
+     * The range includes the start value and excludes the end value. A null bound leaves that side of the range open.
+     * @param partitionHostList host names holding replicas of the partition of the container in order of preference
+     * @param containerName container name for input processing
+     * @param keyRangeStart start of the row key range (the value itself for INTEGER/LONG keys, milliseconds for TIMESTAMP keys)
+     * @param keyRangeEnd end of the row key range (the value itself for INTEGER/LONG keys, milliseconds for TIMESTAMP keys)
+     * </div>
+     */
+    public GSContainerSplit(String[] partitionHostList, String containerName, Long keyRangeStart, Long keyRangeEnd) {
+        this(new String[][] { partitionHostList }, new String[][] { { containerName } });
+
+        keyRangeAssigned_ = true;
+        keyRangeStart_ = keyRangeStart;
+        keyRangeEnd_ = keyRangeEnd;
+    }
+
+    /**
+     * <div lang="ja">
+     * 指定したInputSplitと同じパーティションとコンテナのロウキーの範囲を入力対象とするInputSplitを生成します。<br/>
+     * 範囲は開始値を含み、終了値を含みません。nullを指定した場合は、その方向の範囲を制限しません。
+     * @param split 入力対象のパーティションとコンテナの情報を持つInputSplit
+     * @param keyRangeStart ロウキーの範囲の開始値(INTEGER/LONG型はその値、TIMESTAMP型はミリ秒単位の時刻)
+     * @param keyRangeEnd ロウキーの範囲の終了値(INTEGER/LONG型はその値、TIMESTAMP型はミリ秒単位の時刻)
+     * </div><div lang="en">
+     * Generate an InputSplit for a row key range of the partitions and containers of the specified InputSplit.<br/>
+     * The range includes the start value and excludes the end value. A null bound leaves that side of the range open.
+     * @param split InputSplit holding the partitions and containers for input processing
+     * @param keyRangeStart start of the row key range (the value itself for INTEGER/LONG keys, milliseconds for TIMESTAMP keys)
+     * @param keyRangeEnd end of the row key range (the value itself for INTEGER/LONG keys, milliseconds for TIMESTAMP keys)
+     * </div>
+     */
+    public GSContainerSplit(GSContainerSplit split, Long keyRangeStart, Long keyRangeEnd) {
+        this(split.partitionHostList_, split.getContainerNameList());
+
+        schema_ = split.schema_;
+        keyRangeAssigned_ = true;
+        keyRangeStart_ = keyRangeStart;
+        keyRangeEnd_ = keyRangeEnd;
+    }
+
+    private static String[] getPreferredHosts(String[][] partitionHostList) {
+        String[] preferredHosts = new String[partitionHostList.length];
+        for (int i = 0; i < partitionHostList.length; i++) {
+            preferredHosts[i] = partitionHostList[i][0];
+        }
+        return preferredHosts;
     }
 
     /**
@@ -85,31 +224,63 @@ public class GSContainerSplit implements InputSplit, Comparable<GSContainerSplit
 
         if (containerInfoLength_ > 0) {
             partitionHost_ = new String[containerInfoLength_];
+            partitionHostList_ = new String[containerInfoLength_][];
             containerNameListLength_ = new int[containerInfoLength_];
             containerNameList_ = new String[containerInfoLength_][];
 
+            encodedContainerNameList_ = new byte[containerInfoLength_][];
+
             for (int i = 0; i < containerInfoLength_; i++) {
                 partitionHost_[i] = Text.readString(in);
                 containerNameListLength_[i] = in.readInt();
 
-                if (containerNameListLength_[i] > 0) {
-                    containerNameList_[i] = new String[containerNameListLength_[i]];
+                encodedContainerNameList_[i] = new byte[WritableUtils.readVInt(in)];
+                in.readFully(encodedContainerNameList_[i]);
 
-                    for (int j = 0; j < containerNameListLength_[i]; j++) {
-                        containerNameList_[i][j] = Text.readString(in);
-                    }
+                partitionHostList_[i] = new String[WritableUtils.readVInt(in)];
+                for (int j = 0; j < partitionHostList_[i].length; j++) {
+                    partitionHostList_[i][j] = Text.readString(in);
                 }
             }
         }
+
+        rowCount_ = in.readLong();
+
+        keyRangeAssigned_ = in.readBoolean();
+        keyRangeStart_ = null;
+        keyRangeEnd_ = null;
+        if (keyRangeAssigned_) {
+            if (in.readBoolean()) {
+                keyRangeStart_ = in.readLong();
+            }
+            if (in.readBoolean()) {
+                keyRangeEnd_ = in.readLong();
+            }
+        }
+
+        schema_ = null;
+        if (in.readBoolean()) {
+            boolean rowKeyAssigned = in.readBoolean();
+            ContainerType containerType = ContainerType.valueOf(Text.readString(in));
+            int columnCount = WritableUtils.readVInt(in);
+            List<ColumnInfo> columnInfoList = new ArrayList<ColumnInfo>(columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                String columnName = Text.readString(in);
+                columnInfoList.add(new ColumnInfo(columnName, GSType.valueOf(Text.readString(in))));
+            }
+            schema_ = new ContainerInfo(null, containerType, columnInfoList, rowKeyAssigned);
+        }
     }
 
     /**
      * <div lang="ja">
      * {@inheritDoc}
+     * パーティション毎のコンテナ名は昇順に、直前のコンテナ名との共通の接頭辞を省略して書き込みます。
      * @see Writable#write(DataOutput)
      * @throws IOException DataOutputオブジェクトへの書き込み処理でエラーが発生しました
      * </div><div lang="en">
      * {@inheritDoc}
+     * The container names of each partition are written in ascending order without the prefix shared with the preceding name.
      * @see Writable#write(DataOutput)
      * @throws IOException error occurred when writing to DataOutput object
      * </div>
@@ -122,33 +293,155 @@ public class GSContainerSplit implements InputSplit, Comparable<GSContainerSplit
             Text.writeString(out, partitionHost_[i]);
             out.writeInt(containerNameListLength_[i]);
 
-            for (int j = 0; j < containerNameListLength_[i]; j++) {
-                Text.writeString(out, containerNameList_[i][j]);
+            byte[] encoded = getEncodedContainerNames(i);
+            WritableUtils.writeVInt(out, encoded.length);
+            out.write(encoded);
+
+            WritableUtils.writeVInt(out, partitionHostList_[i].length);
+            for (String host : partitionHostList_[i]) {
+                Text.writeString(out, host);
+            }
+        }
+
+        out.writeLong(rowCount_);
+
+        out.writeBoolean(keyRangeAssigned_);
+        if (keyRangeAssigned_) {
+            out.writeBoolean(keyRangeStart_ != null);
+            if (keyRangeStart_ != null) {
+                out.writeLong(keyRangeStart_);
+            }
+            out.writeBoolean(keyRangeEnd_ != null);
+            if (keyRangeEnd_ != null) {
+                out.writeLong(keyRangeEnd_);
+            }
+        }
+
+        out.writeBoolean(schema_ != null);
+        if (schema_ != null) {
+            out.writeBoolean(schema_.isRowKeyAssigned());
+            Text.writeString(out, schema_.getType().name());
+            WritableUtils.writeVInt(out, schema_.getColumnCount());
+            for (int i = 0; i < schema_.getColumnCount(); i++) {
+                ColumnInfo columnInfo = schema_.getColumnInfo(i);
+                Text.writeString(out, columnInfo.getName());
+                Text.writeString(out, columnInfo.getType().name());
             }
         }
     }
 
-    /*
-     * (non Javadoc)
-     * @see org.apache.hadoop.mapred.InputSplit#getLength()
+    /**
+     * <div lang="ja">
+     * InputSplitの大きさを返します。<br/>
+     * 入力対象の推定ロウ数が設定されていればその値を、そうでなければ入力対象のパーティション数を返します。
+     * @see InputSplit#getLength()
+     * </div><div lang="en">
+     * Return the size of the InputSplit.<br/>
+     * The estimated number of rows for input processing is returned if it has been set, and the number of partitions otherwise.
+     * @see InputSplit#getLength()
+     * </div>
      */
     @Override
     public long getLength() {
+        if (rowCount_ >= 0) {
+            return rowCount_;
+        }
         return containerInfoLength_;
     }
 
     /**
      * <div lang="ja">
-     * 入力対象の各パーティションに対応するホスト名配列を返します。
+     * 入力対象の推定ロウ数を返します。設定されていない場合は負の値を返します。
+     * @return 推定ロウ数
+     * </div><div lang="en">
+     * Return the estimated number of rows for input processing or a negative value if it has not been set.
+     * @return estimated number of rows
+     * </div>
+     */
+    public long getRowCount() {
+        return rowCount_;
+    }
+
+    /**
+     * <div lang="ja">
+     * 入力対象の推定ロウ数を設定します。
+     * @param rowCount 推定ロウ数
+     * </div><div lang="en">
+     * Set the estimated number of rows for input processing.
+     * @param rowCount estimated number of rows
+     * </div>
+     */
+    public void setRowCount(long rowCount) {
+        rowCount_ = rowCount;
+    }
+
+    /**
+     * <div lang="ja">
+     * 入力対象の先頭のコンテナのスキーマを返します。設定されていない場合はnullを返します。<br/>
+     * InputSplit内のコンテナは全て同じスキーマを持つものとして扱われます。
+     * @return ContainerInfoオブジェクト、またはnull
+     * </div><div lang="en">
+     * Return the schema of the first container for input processing or null if it has not been set.<br/>
+     * All containers in the InputSplit are treated as having the same schema.
+     * @return ContainerInfo object or null
+     * </div>
+     */
+    public ContainerInfo getSchema() {
+        return schema_;
+    }
+
+    /**
+     * <div lang="ja">
+     * 入力対象の先頭のコンテナのスキーマを設定します。InputSplitにはロウキーの有無、コンテナ種別、カラムの名前と型のみを書き込みます。
+     * @param schema ContainerInfoオブジェクト、またはnull
+     * </div><div lang="en">
+     * Set the schema of the first container for input processing. Only whether a row key is assigned,
+     * the container type and the names and types of the columns are written to the InputSplit.
+     * @param schema ContainerInfo object or null
+     * </div>
+     */
+    public void setSchema(ContainerInfo schema) {
+        schema_ = schema;
+    }
+
+    /**
+     * <div lang="ja">
+     * 入力対象の各パーティションのレプリカを保持するホスト名配列を返します。<br/>
+     * 各パーティションに対して選択されたホストを先に、その他のレプリカを保持するホストを後に、重複を除いて並べます。
      * @see InputSplit#getLocations()
      * </div><div lang="en">
-     * Return the host name array corresponding to each partition for input processing.
+     * Return the host name array holding replicas of each partition for input processing.<br/>
+     * The hosts selected for each partition come first, followed by the other hosts holding replicas, without duplicates.
      * @see InputSplit#getLocations()
      * </div>
      */
     @Override
     public String[] getLocations() {
-        return partitionHost_;
+        Set<String> locations = new LinkedHashSet<String>();
+        for (int i = 0; i < containerInfoLength_; i++) {
+            locations.add(partitionHost_[i]);
+        }
+        for (int i = 0; i < containerInfoLength_; i++) {
+            for (String host : partitionHostList_[i]) {
+                locations.add(host);
+            }
+        }
+        return locations.toArray(new String[locations.size()]);
+    }
+
+    /**
+     * <div lang="ja">
+     * 指定したパーティションのレプリカを保持するホスト名を優先順に返します。先頭はそのパーティションに対して選択されたホストです。
+     * @param index パーティションのInputSplit内での位置
+     * @return 優先順のホスト名配列
+     * </div><div lang="en">
+     * Return the host names holding replicas of the specified partition in order of preference. The first one is the host selected for the partition.
+     * @param index position of the partition in the InputSplit
+     * @return host name array in order of preference
+     * </div>
+     */
+    public String[] getPartitionHosts(int index) {
+        return partitionHostList_[index];
     }
 
     /**
@@ -161,9 +454,137 @@ public class GSContainerSplit implements InputSplit, Comparable<GSContainerSplit
      * </div>
      */
     public String[][] getContainerNameList() {
+        for (int i = 0; i < containerInfoLength_; i++) {
+            if (containerNameList_[i] == null && containerNameListLength_[i] > 0) {
+                String[] containerNameList = new String[containerNameListLength_[i]];
+                Iterator<String> it = getContainerNames(i);
+                for (int j = 0; j < containerNameList.length; j++) {
+                    containerNameList[j] = it.next();
+                }
+                containerNameList_[i] = containerNameList;
+                encodedContainerNameList_[i] = null;
+            }
+        }
         return containerNameList_;
     }
 
+    /**
+     * <div lang="ja">
+     * 入力対象のパーティション数を返します。
+     * @return パーティション数
+     * </div><div lang="en">
+     * Return the number of partitions for input processing.
+     * @return number of partitions
+     * </div>
+     */
+    public int getContainerInfoLength() {
+        return containerInfoLength_;
+    }
+
+    /**
+     * <div lang="ja">
+     * 指定したパーティションのコンテナ名の数を返します。
+     * @param index パーティションのInputSplit内での位置
+     * @return コンテナ名の数
+     * </div><div lang="en">
+     * Return the number of container names of the specified partition.
+     * @param index position of the partition in the InputSplit
+     * @return number of container names
+     * </div>
+     */
+    public int getContainerNameCount(int index) {
+        return containerNameListLength_[index];
+    }
+
+    /**
+     * <div lang="ja">
+     * 指定したパーティションのコンテナ名を順に返すIteratorを返します。<br/>
+     * 読み込んだInputSplitのコンテナ名は、Iteratorで取得する際に復号されます。
+     * @param index パーティションのInputSplit内での位置
+     * @return コンテナ名のIterator
+     * </div><div lang="en">
+     * Return an Iterator over the container names of the specified partition.<br/>
+     * The container names of an InputSplit read from a stream are decoded as the Iterator proceeds.
+     * @param index position of the partition in the InputSplit
+     * @return Iterator over the container names
+     * </div>
+     */
+    public Iterator<String> getContainerNames(int index) {
+        if (containerNameList_[index] != null) {
+            return Arrays.asList(containerNameList_[index]).iterator();
+        }
+        if (encodedContainerNameList_ == null || encodedContainerNameList_[index] == null) {
+            return Arrays.asList(new String[0]).iterator();
+        }
+        return new ContainerNameIterator(encodedContainerNameList_[index], containerNameListLength_[index]);
+    }
+
+    private byte[] getEncodedContainerNames(int index) throws IOException {
+        if (containerNameList_[index] == null) {
+            if (encodedContainerNameList_ != null && encodedContainerNameList_[index] != null) {
+                return encodedContainerNameList_[index];
+            }
+            return new byte[0];
+        }
+
+        // Container names are sorted when this split is built
+        DataOutputBuffer buffer = new DataOutputBuffer();
+        String previous = "";
+        for (String containerName : containerNameList_[index]) {
+            int prefixLength = 0;
+            int maxLength = Math.min(previous.length(), containerName.length());
+            while (prefixLength < maxLength && previous.charAt(prefixLength) == containerName.charAt(prefixLength)) {
+                prefixLength++;
+            }
+            if (prefixLength > 0 && Character.isHighSurrogate(containerName.charAt(prefixLength - 1))) {
+                prefixLength--;
+            }
+            WritableUtils.writeVInt(buffer, prefixLength);
+            Text.writeString(buffer, containerName.substring(prefixLength));
+            previous = containerName;
+        }
+        return Arrays.copyOf(buffer.getData(), buffer.getLength());
+    }
+
+    /**
+     * <div lang="ja">
+     * ロウキーの範囲が指定されたInputSplitであるかを判定します。
+     * @return ロウキーの範囲が指定されていればtrue、そうでなければfalse
+     * </div><div lang="en">
+     * Determine whether a row key range is assigned to this InputSplit.
+     * @return true if a row key range is assigned and false otherwise
+     * </div>
+     */
+    public boolean isKeyRangeAssigned() {
+        return keyRangeAssigned_;
+    }
+
+    /**
+     * <div lang="ja">
+     * ロウキーの範囲の開始値(この値を含む)を返します。範囲の開始が制限されていない場合はnullを返します。
+     * @return ロウキーの範囲の開始値
+     * </div><div lang="en">
+     * Return the start (inclusive) of the row key range or null if the start of the range is open.
+     * @return start of the row key range
+     * </div>
+     */
+    public Long getKeyRangeStart() {
+        return keyRangeStart_;
+    }
+
+    /**
+     * <div lang="ja">
+     * ロウキーの範囲の終了値(この値を含まない)を返します。範囲の終了が制限されていない場合はnullを返します。
+     * @return ロウキーの範囲の終了値
+     * </div><div lang="en">
+     * Return the end (exclusive) of the row key range or null if the end of the range is open.
+     * @return end of the row key range
+     * </div>
+     */
+    public Long getKeyRangeEnd() {
+        return keyRangeEnd_;
+    }
+
     private String getHeadPartitionHost() {
         if (containerInfoLength_ > 0) {
             return partitionHost_[0];
@@ -174,12 +595,19 @@ public class GSContainerSplit implements InputSplit, Comparable<GSContainerSplit
     private String getHeadContainerName() {
         if (containerInfoLength_ > 0) {
             if (containerNameListLength_[0] > 0) {
-                return containerNameList_[0][0];
+                return getContainerNames(0).next();
             }
         }
         return "";
     }
 
+    private long getKeyRangeHead() {
+        if (keyRangeStart_ != null) {
+            return keyRangeStart_;
+        }
+        return Long.MIN_VALUE;
+    }
+
     /*
      * (non-Javadoc)
      * @see java.lang.Object#toString()
@@ -193,6 +621,17 @@ public class GSContainerSplit implements InputSplit, Comparable<GSContainerSplit
             sb.append(":");
             sb.append(containerName);
         }
+        if (keyRangeAssigned_) {
+            sb.append("[");
+            if (keyRangeStart_ != null) {
+                sb.append(keyRangeStart_);
+            }
+            sb.append(",");
+            if (keyRangeEnd_ != null) {
+                sb.append(keyRangeEnd_);
+            }
+            sb.append(")");
+        }
 
         return sb.toString();
     }
@@ -211,6 +650,9 @@ public class GSContainerSplit implements InputSplit, Comparable<GSContainerSplit
         if (ret == 0) {
             ret = getHeadContainerName().compareTo(o.getHeadContainerName());
         }
+        if (ret == 0) {
+            ret = Long.valueOf(getKeyRangeHead()).compareTo(o.getKeyRangeHead());
+        }
 
         return ret;
     }
@@ -226,6 +668,7 @@ public class GSContainerSplit implements InputSplit, Comparable<GSContainerSplit
 
         result = prime * result + getHeadPartitionHost().hashCode();
         result = prime * result + getHeadContainerName().hashCode();
+        result = prime * result + Long.valueOf(getKeyRangeHead()).hashCode();
 
         return result;
     }
@@ -253,7 +696,48 @@ public class GSContainerSplit implements InputSplit, Comparable<GSContainerSplit
         if (! getHeadContainerName().equals(other.getHeadContainerName())) {
             return false;
         }
+        if (getKeyRangeHead() != other.getKeyRangeHead()) {
+            return false;
+        }
 
         return true;
     }
+
+    private static class ContainerNameIterator implements Iterator<String> {
+        private final DataInputBuffer in_ = new DataInputBuffer();
+
+        private int remaining_;
+
+        private String previous_ = "";
+
+        private ContainerNameIterator(byte[] encoded, int count) {
+            in_.reset(encoded, encoded.length);
+            remaining_ = count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining_ > 0;
+        }
+
+        @Override
+        public String next() {
+            if (remaining_ <= 0) {
+                throw new NoSuchElementException();
+            }
+            try {
+                int prefixLength = WritableUtils.readVInt(in_);
+                previous_ = previous_.substring(0, prefixLength) + Text.readString(in_);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            remaining_--;
+            return previous_;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
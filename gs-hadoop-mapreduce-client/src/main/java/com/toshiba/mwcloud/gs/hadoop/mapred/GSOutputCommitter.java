@@ -0,0 +1,126 @@
+/*
+   Copyright (c) 2016 TOSHIBA CORPORATION.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.toshiba.mwcloud.gs.hadoop.mapred;
+
+import static com.toshiba.mwcloud.gs.hadoop.conf.GDProperty.*;
+
+import java.io.IOException;
+
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.JobContext;
+import org.apache.hadoop.mapred.OutputCommitter;
+import org.apache.hadoop.mapred.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.JobStatus;
+
+import com.toshiba.mwcloud.gs.hadoop.util.GDStagingUtils;
+
+/**
+ * <div lang="ja">
+ * GridDB用OutputCommitterです。JobConf#setOutputCommitterで指定します。<br/>
+ * 処理はcom.toshiba.mwcloud.gs.hadoop.mapreduce.GSOutputCommitterと同じです。
+ * </div><div lang="en">
+ * GridDB OutputCommitter, which is specified by JobConf#setOutputCommitter.<br/>
+ * The processing is the same as com.toshiba.mwcloud.gs.hadoop.mapreduce.GSOutputCommitter.
+ * </div>
+ */
+public class GSOutputCommitter extends OutputCommitter {
+    private final com.toshiba.mwcloud.gs.hadoop.mapreduce.GSOutputCommitter committer_ =
+            new com.toshiba.mwcloud.gs.hadoop.mapreduce.GSOutputCommitter();
+
+    /**
+     * <div lang="ja">
+     * ステージング用コンテナを使用する場合に、ジョブのOutputCommitterとしてこのクラスが指定されているかを確認します。<br/>
+     * 指定されていない場合、ステージング用コンテナのロウデータは出力先のコンテナに書き込まれず、ステージング用コンテナも削除されません。
+     * @param job JobConfオブジェクト
+     * @throws IOException ステージング用コンテナを使用する場合に、このクラスが指定されていません
+     * </div><div lang="en">
+     * Check that this class is specified as the OutputCommitter of the job when staging containers are used.<br/>
+     * Otherwise, row data of staging containers would be neither written to the output container nor dropped.
+     * @param job JobConf object
+     * @throws IOException this class is not specified when staging containers are used
+     * </div>
+     */
+    public static void checkOutputCommitter(JobConf job) throws IOException {
+        if (GDStagingUtils.isStagingEnabled(job) && ! (job.getOutputCommitter() instanceof GSOutputCommitter)) {
+            throw new IOException("'" + GS_OUTPUT_STAGING.getKey() + "' requires " + GSOutputCommitter.class.getName()
+                    + " to be set by JobConf#setOutputCommitter");
+        }
+    }
+
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapred.OutputCommitter#setupJob(org.apache.hadoop.mapred.JobContext)
+     */
+    @Override
+    public void setupJob(JobContext jobContext) throws IOException {
+        committer_.setupJob(jobContext);
+    }
+
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapred.OutputCommitter#commitJob(org.apache.hadoop.mapred.JobContext)
+     */
+    @Override
+    public void commitJob(JobContext jobContext) throws IOException {
+        committer_.commitJob(jobContext);
+    }
+
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapred.OutputCommitter#abortJob(org.apache.hadoop.mapred.JobContext, int)
+     */
+    @Override
+    public void abortJob(JobContext jobContext, int status) throws IOException {
+        committer_.abortJob(jobContext, JobStatus.State.FAILED);
+    }
+
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapred.OutputCommitter#setupTask(org.apache.hadoop.mapred.TaskAttemptContext)
+     */
+    @Override
+    public void setupTask(TaskAttemptContext taskContext) throws IOException {
+        committer_.setupTask(taskContext);
+    }
+
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapred.OutputCommitter#needsTaskCommit(org.apache.hadoop.mapred.TaskAttemptContext)
+     */
+    @Override
+    public boolean needsTaskCommit(TaskAttemptContext taskContext) throws IOException {
+        return committer_.needsTaskCommit(taskContext);
+    }
+
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapred.OutputCommitter#commitTask(org.apache.hadoop.mapred.TaskAttemptContext)
+     */
+    @Override
+    public void commitTask(TaskAttemptContext taskContext) throws IOException {
+        committer_.commitTask(taskContext);
+    }
+
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapred.OutputCommitter#abortTask(org.apache.hadoop.mapred.TaskAttemptContext)
+     */
+    @Override
+    public void abortTask(TaskAttemptContext taskContext) throws IOException {
+        committer_.abortTask(taskContext);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+   Copyright (c) 2016 TOSHIBA CORPORATION.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.toshiba.mwcloud.gs.hadoop.mapred;
+
+import static com.toshiba.mwcloud.gs.hadoop.conf.GDProperty.*;
+
+import java.io.IOException;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.OutputFormat;
+import org.apache.hadoop.mapred.RecordWriter;
+import org.apache.hadoop.util.Progressable;
+
+import com.toshiba.mwcloud.gs.hadoop.io.GSRowWritable;
+
+/**
+ * <div lang="ja">
+ * GridDBのRowオブジェクトを利用した、書き込み先のコンテナをキーで指定するGridDB用OutputFormatクラスです。<br/>
+ * キーには書き込み先のコンテナ名を指定します。<br/>
+ * 書き込み先のコンテナに直接書き込むため、gs.output.stagingにtrueを指定することはできません。
+ * </div><div lang="en">
+ * GridDB OutputFormat class using GridDB Row object, in which the output container is specified by the key.<br/>
+ * Specify the name of the output container as the key.<br/>
+ * Rows are written directly to the output containers, so gs.output.staging cannot be set to true.
+ * </div>
+ */
+public class GSRoutedRowOutputFormat implements OutputFormat<Text, GSRowWritable> {
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapred.OutputFormat#getRecordWriter(org.apache.hadoop.fs.FileSystem, org.apache.hadoop.mapred.JobConf, java.lang.String,
+     * org.apache.hadoop.util.Progressable)
+     */
+    @Override
+    public RecordWriter<Text, GSRowWritable> getRecordWriter(FileSystem ignored,
+            JobConf job, String name, Progressable progress) throws IOException {
+        RecordWriter<Text, GSRowWritable> writer = new GSRoutedRowRecordWriter(job);
+        return writer;
+    }
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapred.OutputFormat#checkOutputSpecs(org.apache.hadoop.fs.FileSystem, org.apache.hadoop.mapred.JobConf)
+     */
+    @Override
+    public void checkOutputSpecs(FileSystem ignored, JobConf job) throws IOException {
+        if (Boolean.parseBoolean(GS_OUTPUT_STAGING.get(job))) {
+            throw new IOException("'" + GS_OUTPUT_STAGING.getKey() + "' cannot be used with " + GSRoutedRowOutputFormat.class.getName());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+   Copyright (c) 2016 TOSHIBA CORPORATION.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.toshiba.mwcloud.gs.hadoop.mapred;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordWriter;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+
+import com.toshiba.mwcloud.gs.Row;
+
+import com.toshiba.mwcloud.gs.hadoop.io.GSRowWritable;
+import com.toshiba.mwcloud.gs.hadoop.util.GDRoutedRecordWriter;
+
+/**
+ * <div lang="ja">
+ * GridDBのRowオブジェクトを利用した、書き込み先のコンテナをキーで指定するGridDB用RecordWriterクラスです。
+ * </div><div lang="en">
+ * GridDB RecordWriter class using GridDB Row object, in which the output container is specified by the key.
+ * </div>
+ */
+public class GSRoutedRowRecordWriter implements RecordWriter<Text, GSRowWritable> {
+    private GDRoutedRecordWriter writer_;
+
+    /**
+     * <div lang="ja">
+     * コンストラクタ
+     * @param conf　Configurationオブジェクト
+     * @throws IOException　GridDBで例外が発生しました
+     * </div><div lang="en">
+     * Constructor
+     * @param conf Configuration object
+     * @throws IOException an exception occurred in GridDB
+     * </div>
+     */
+    public GSRoutedRowRecordWriter(JobConf conf) throws IOException {
+        TaskAttemptContext context = new TaskAttemptContextImpl(conf, TaskAttemptID.forName(conf.get("mapred.task.id")));
+        writer_ = new GDRoutedRecordWriter(context);
+    }
+
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapred.RecordWriter#close(org.apache.hadoop.mapred.Reporter)
+     */
+    @Override
+    public void close(Reporter reporter) throws IOException {
+        writer_.close();
+    }
+
+    /**
+     * <div lang="ja">
+     * データを指定されたコンテナに書き込みます。
+     * @param key 書き込み先のコンテナ名
+     * @param value 書き込み対象のデータが設定されたGSRowWritableオブジェクト
+     * @throws IOException 書き込み処理でエラーが発生しました
+     * </div><div lang="en">
+     * Write data to the specified container.
+     * @param key name of the output container
+     * @param value GSRowWritable object in which write data is set
+     * @throws IOException an error occurred during writing process
+     * </div>
+     */
+    @Override
+    public void write(Text key, GSRowWritable value) throws IOException {
+        String containerName = key.toString();
+        Row row = writer_.getRow(containerName);
+        value.getValues(row);
+        writer_.putRow(containerName, row, value);
+    }
+}
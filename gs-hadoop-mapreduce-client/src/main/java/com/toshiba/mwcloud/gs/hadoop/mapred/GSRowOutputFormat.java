@@ -52,5 +52,6 @@ public class GSRowOutputFormat implements OutputFormat<NullWritable, GSRowWritab
      */
     @Override
     public void checkOutputSpecs(FileSystem ignored, JobConf job) throws IOException {
+        GSOutputCommitter.checkOutputCommitter(job);
     }
 }
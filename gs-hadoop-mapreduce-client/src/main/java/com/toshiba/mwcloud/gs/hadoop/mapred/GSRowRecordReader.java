@@ -106,7 +106,7 @@ public class GSRowRecordReader implements RecordReader<GSColumnKeyWritable, GSRo
 
         GDRowSet rowSet = reader_.getRowSet();
         Row row = rowSet.nextRow();
-        value.setValues(row);
+        value.setValues(row, reader_.getColumnIndexes());
 
         GSType type = key.getType();
         if (type != null) {
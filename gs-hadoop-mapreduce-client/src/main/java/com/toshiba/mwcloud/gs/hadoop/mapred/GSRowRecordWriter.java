@@ -45,14 +45,15 @@ public class GSRowRecordWriter implements RecordWriter<NullWritable, GSRowWritab
      * <div lang="ja">
      * コンストラクタ
      * @param conf　Configurationオブジェクト
-     * @throws IOException　GridDBで例外が発生しました
+     * @throws IOException　ステージング用コンテナを使用する場合にGSOutputCommitterが指定されていないか、GridDBで例外が発生しました
      * </div><div lang="en">
      * Constructor
      * @param conf Configuration object
-     * @throws IOException an exception occurred in GridDB
+     * @throws IOException GSOutputCommitter is not specified when staging containers are used or an exception occurred in GridDB
      * </div>
      */
     public GSRowRecordWriter(JobConf conf) throws IOException {
+        GSOutputCommitter.checkOutputCommitter(conf);
         TaskAttemptContext context = new TaskAttemptContextImpl(conf, TaskAttemptID.forName(conf.get("mapred.task.id")));
         writer_ = new GDRecordWriter(context);
     }
@@ -83,6 +84,6 @@ public class GSRowRecordWriter implements RecordWriter<NullWritable, GSRowWritab
     public void write(NullWritable key, GSRowWritable value) throws IOException {
         Row row = writer_.getRow();
         value.getValues(row);
-        writer_.putRow(row);
+        writer_.putRow(row, value);
     }
 }
@@ -0,0 +1,144 @@
+/*
+   Copyright (c) 2016 TOSHIBA CORPORATION.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.toshiba.mwcloud.gs.hadoop.mapreduce;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+
+import static com.toshiba.mwcloud.gs.hadoop.conf.GDProperty.*;
+
+import com.toshiba.mwcloud.gs.hadoop.conf.GDPropertyUtils;
+import com.toshiba.mwcloud.gs.hadoop.io.GSColumnBatchWritable;
+import com.toshiba.mwcloud.gs.hadoop.util.GDRecordReader;
+
+import com.toshiba.mwcloud.gs.GSType;
+
+/**
+ * <div lang="ja">
+ * 複数のロウのカラム値をカラム毎の配列で読み込むGridDB用RecordReaderクラスです。<br/>
+ * 1回の読み込みでプロパティgs.input.batch.rowsで指定したロウ数までのロウを読み込みます。
+ * </div><div lang="en">
+ * GridDB RecordReader class reading the column values of multiple rows in an array for each column.<br/>
+ * Each read acquires up to the number of rows specified by the property gs.input.batch.rows.
+ * </div>
+ */
+public class GSColumnBatchRecordReader extends RecordReader<NullWritable, GSColumnBatchWritable> {
+    private GDRecordReader reader_;
+
+    private Configuration conf_;
+
+    private int batchRows_;
+
+    private GSType[] types_;
+
+    private GSColumnBatchWritable value_;
+
+    /*
+     * (non-Javadoc)
+     * @see org.apache.hadoop.mapreduce.RecordReader#initialize(org.apache.hadoop.mapreduce.InputSplit, org.apache.hadoop.mapreduce.TaskAttemptContext)
+     */
+    @Override
+    public void initialize(InputSplit split, TaskAttemptContext context) throws IOException {
+        conf_ = context.getConfiguration();
+        reader_ = new GDRecordReader(((GSContainerSplit) split).getDelegate(), conf_);
+        batchRows_ = GDPropertyUtils.getInteger(conf_, GS_INPUT_BATCH_ROWS);
+        types_ = null;
+        value_ = new GSColumnBatchWritable();
+    }
+
+    /**
+     * <div lang="ja">
+     * 次のロウの集まりを取得できるかを判定します。
+     * @return ロウを1つ以上取得できればtrue、残っていなければfalse
+     * @throws IOException 判定処理でエラーが発生しました
+     * </div><div lang="en">
+     * Determine whether the next batch of rows can be acquired.
+     * @return true if one or more rows can be acquired and false otherwise
+     * @throws IOException an error occurred in the judgment process
+     * </div>
+     */
+    @Override
+    public boolean nextKeyValue() throws IOException {
+        if (! reader_.hasNext()) {
+            return false;
+        }
+        if (types_ == null) {
+            List<String> typeList = GDPropertyUtils.getPropertyList(conf_, GS_INPUT_COLUMN_TYPE_LIST);
+            types_ = new GSType[typeList.size()];
+            for (int i = 0; i < types_.length; i++) {
+                types_[i] = GSType.valueOf(typeList.get(i));
+            }
+        }
+
+        value_.reset(types_, batchRows_);
+        while (! value_.isFull() && reader_.hasNext()) {
+            value_.addRow(reader_.getRowSet().nextRow(), reader_.getColumnIndexes());
+        }
+        return true;
+    }
+
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapreduce.RecordReader#getCurrentKey()
+     */
+    @Override
+    public NullWritable getCurrentKey() {
+        return NullWritable.get();
+    }
+
+    /**
+     * <div lang="ja">
+     * 次のロウの集まりを返します。
+     * @return 取得したロウのカラム値が設定されたGSColumnBatchWritableオブジェクト
+     * </div><div lang="en">
+     * Return the next batch of rows.
+     * @return GSColumnBatchWritable object in which the column values of the acquired rows are set
+     * </div>
+     */
+    @Override
+    public GSColumnBatchWritable getCurrentValue() {
+        return value_;
+    }
+
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapred.RecordReader#close()
+     */
+    @Override
+    public void close() throws IOException {
+        if (reader_ != null) {
+            reader_.close();
+        }
+    }
+
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapreduce.RecordReader#getProgress()
+     */
+    @Override
+    public float getProgress() {
+        if (reader_ != null) {
+            return reader_.getProgress();
+        }
+        return 0;
+    }
+}
@@ -23,6 +23,8 @@ import java.io.IOException;
 import org.apache.hadoop.io.Writable;
 import org.apache.hadoop.mapreduce.InputSplit;
 
+import com.toshiba.mwcloud.gs.ContainerInfo;
+
 /**
  * <div lang="ja">
  * GridDB用のInputSplitです。
@@ -39,11 +41,13 @@ public class GSContainerSplit extends InputSplit implements Writable, Comparable
 
     /**
      * <div lang="ja">
-     * 入力対象のパーティションとコンテナの情報からInputSplitを生成します。
+     * 入力対象のパーティションとコンテナの情報からInputSplitを生成します。<br/>
+     * パーティション毎のコンテナ名は昇順に並べ替えます。
      * @param partitionHostList 入力対象のパーティション毎に選択されたホスト名配列
      * @param containerNameList パーティション毎に作成された入力対象のコンテナ名配列
      * </div><div lang="en">
-     * Generate InputSplits from containers and partitions for input processing.
+     * Generate InputSplits from containers and partitions for input processing.<br/>
+     * The container names of each partition are sorted in ascending order.
      * @param partitionHostList host name array selected for each partition
      * @param containerNameList container name array of each partition
      * </div>
@@ -52,6 +56,84 @@ public class GSContainerSplit extends InputSplit implements Writable, Comparable
         delegate_ = new com.toshiba.mwcloud.gs.hadoop.mapred.GSContainerSplit(partitionHostList, containerNameList);
     }
 
+    /**
+     * <div lang="ja">
+     * 1つのコンテナのロウキーの範囲を入力対象とするInputSplitを生成します。<br/>
+     * 範囲は開始値を含み、終了値を含みません。nullを指定した場合は、その方向の範囲を制限しません。
+     * @param partitionHost 入力対象のパーティションに対して選択されたホスト名
+     * @param containerName 入力対象のコンテナ名
+     * @param keyRangeStart ロウキーの範囲の開始値
+     * @param keyRangeEnd ロウキーの範囲の終了値
+     * </div><div lang="en">
+     * Generate an InputSplit for a row key range of a single container.<br/>
+     * The range includes the start value and excludes the end value. A null bound leaves that side of the range open.
+     * @param partitionHost host name selected for the partition of the container
+     * @param containerName container name for input processing
+     * @param keyRangeStart start of the row key range
+     * @param keyRangeEnd end of the row key range
+     * </div>
+     */
+    public GSContainerSplit(String partitionHost, String containerName, Long keyRangeStart, Long keyRangeEnd) {
+        delegate_ = new com.toshiba.mwcloud.gs.hadoop.mapred.GSContainerSplit(partitionHost, containerName, keyRangeStart, keyRangeEnd);
+    }
+
+    /**
+     * <div lang="ja">
+     * 入力対象のパーティションとコンテナの情報からInputSplitを生成します。<br/>
+     * パーティション毎に、レプリカを保持するホスト名を優先順に指定します。先頭のホストがそのパーティションに対して選択されたホストとなります。
+     * @param partitionHostList 入力対象のパーティション毎の優先順のホスト名配列
+     * @param containerNameList パーティション毎に作成された入力対象のコンテナ名配列
+     * </div><div lang="en">
+     * Generate InputSplits from containers and partitions for input processing.<br/>
+     * The host names holding replicas of each partition are specified in order of preference. The first host is the one selected for the partition.
+     * @param partitionHostList host name array of each partition in order of preference
+     * @param containerNameList container name array of each partition
+     * </div>
+     */
+    public GSContainerSplit(String[][] partitionHostList, String[][] containerNameList) {
+        delegate_ = new com.toshiba.mwcloud.gs.hadoop.mapred.GSContainerSplit(partitionHostList, containerNameList);
+    }
+
+    /**
+     * <div lang="ja">
+     * 1つのコンテナのロウキーの範囲を入力対象とするInputSplitを生成します。<br/>
+     * 範囲は開始値を含み、終了値を含みません。nullを指定した場合は、その方向の範囲を制限しません。
+     * @param partitionHostList 入力対象のパーティションのレプリカを保持する優先順のホスト名配列
+     * @param containerName 入力対象のコンテナ名
+     * @param keyRangeStart ロウキーの範囲の開始値
+     * @param keyRangeEnd ロウキーの範囲の終了値
+     * </div><div lang="en">
+     * Generate an InputSplit for a row key range of a single container.<br/>
+     * The range includes the start value and excludes the end value. A null bound leaves that side of the range open.
+     * @param partitionHostList host names holding replicas of the partition of the container in order of preference
+     * @param containerName container name for input processing
+     * @param keyRangeStart start of the row key range
+     * @param keyRangeEnd end of the row key range
+     * </div>
+     */
+    public GSContainerSplit(String[] partitionHostList, String containerName, Long keyRangeStart, Long keyRangeEnd) {
+        delegate_ = new com.toshiba.mwcloud.gs.hadoop.mapred.GSContainerSplit(partitionHostList, containerName, keyRangeStart, keyRangeEnd);
+    }
+
+    /**
+     * <div lang="ja">
+     * 指定したInputSplitと同じパーティションとコンテナのロウキーの範囲を入力対象とするInputSplitを生成します。<br/>
+     * 範囲は開始値を含み、終了値を含みません。nullを指定した場合は、その方向の範囲を制限しません。
+     * @param split 入力対象のパーティションとコンテナの情報を持つInputSplit
+     * @param keyRangeStart ロウキーの範囲の開始値
+     * @param keyRangeEnd ロウキーの範囲の終了値
+     * </div><div lang="en">
+     * Generate an InputSplit for a row key range of the partitions and containers of the specified InputSplit.<br/>
+     * The range includes the start value and excludes the end value. A null bound leaves that side of the range open.
+     * @param split InputSplit holding the partitions and containers for input processing
+     * @param keyRangeStart start of the row key range
+     * @param keyRangeEnd end of the row key range
+     * </div>
+     */
+    public GSContainerSplit(GSContainerSplit split, Long keyRangeStart, Long keyRangeEnd) {
+        delegate_ = new com.toshiba.mwcloud.gs.hadoop.mapred.GSContainerSplit(split.getDelegate(), keyRangeStart, keyRangeEnd);
+    }
+
     /**
      * <div lang="ja">
      * {@inheritDoc}
@@ -93,6 +175,32 @@ public class GSContainerSplit extends InputSplit implements Writable, Comparable
         return delegate_.getLength();
     }
 
+    /**
+     * <div lang="ja">
+     * 入力対象の推定ロウ数を設定します。
+     * @param rowCount 推定ロウ数
+     * </div><div lang="en">
+     * Set the estimated number of rows for input processing.
+     * @param rowCount estimated number of rows
+     * </div>
+     */
+    public void setRowCount(long rowCount) {
+        delegate_.setRowCount(rowCount);
+    }
+
+    /**
+     * <div lang="ja">
+     * 入力対象の先頭のコンテナのスキーマを設定します。
+     * @param schema ContainerInfoオブジェクト、またはnull
+     * </div><div lang="en">
+     * Set the schema of the first container for input processing.
+     * @param schema ContainerInfo object or null
+     * </div>
+     */
+    public void setSchema(ContainerInfo schema) {
+        delegate_.setSchema(schema);
+    }
+
     /*
      * (non Javadoc)
      * @see org.apache.hadoop.mapreduce.InputSplit#getLocations()
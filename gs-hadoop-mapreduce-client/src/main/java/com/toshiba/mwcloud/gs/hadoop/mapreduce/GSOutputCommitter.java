@@ -16,17 +16,32 @@
 
 package com.toshiba.mwcloud.gs.hadoop.mapreduce;
 
+import static com.toshiba.mwcloud.gs.hadoop.conf.GDProperty.*;
+
 import java.io.IOException;
 
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.hadoop.mapreduce.JobStatus;
 import org.apache.hadoop.mapreduce.OutputCommitter;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 
+import com.toshiba.mwcloud.gs.GridStore;
+import com.toshiba.mwcloud.gs.hadoop.conf.GDPropertyUtils;
+import com.toshiba.mwcloud.gs.hadoop.util.GDStagingUtils;
+
 /**
  * <div lang="ja">
- * GridDB用OutputCommitterです。
+ * GridDB用OutputCommitterです。<br/>
+ * gs.output.stagingがtrueの場合、タスクの試行毎のステージング用コンテナのロウデータをタスクのコミット時に出力先のコンテナに書き込み、
+ * タスクのアボート時にはステージング用コンテナを削除します。ジョブの終了時には残っているステージング用コンテナを削除します。
+ * gs.output.stagingがfalseの場合は何もしません。
  * </div><div lang="en">
- * GridDB OutputCommitter.
+ * GridDB OutputCommitter.<br/>
+ * If gs.output.staging is true, row data of the staging container of each task attempt is written to the output container
+ * when the task is committed, and the staging container is dropped when the task is aborted.
+ * Remaining staging containers are dropped when the job is finished.
+ * If gs.output.staging is false, nothing is done.
  * </div>
  */
 public class GSOutputCommitter extends OutputCommitter {
@@ -38,6 +53,25 @@ public class GSOutputCommitter extends OutputCommitter {
     public void setupJob(JobContext jobContext) throws IOException {
     }
 
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapreduce.OutputCommitter#commitJob(org.apache.hadoop.mapreduce.JobContext)
+     */
+    @Override
+    public void commitJob(JobContext jobContext) throws IOException {
+        // Staging containers of attempts killed without being aborted are dropped
+        dropStagingContainers(jobContext);
+    }
+
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapreduce.OutputCommitter#abortJob(org.apache.hadoop.mapreduce.JobContext, org.apache.hadoop.mapreduce.JobStatus.State)
+     */
+    @Override
+    public void abortJob(JobContext jobContext, JobStatus.State state) throws IOException {
+        dropStagingContainers(jobContext);
+    }
+
     /*
      * (non Javadoc)
      * @see org.apache.hadoop.mapreduce.OutputCommitter#setupTask(org.apache.hadoop.mapreduce.TaskAttemptContext)
@@ -52,7 +86,17 @@ public class GSOutputCommitter extends OutputCommitter {
      */
     @Override
     public boolean needsTaskCommit(TaskAttemptContext taskContext) throws IOException {
-        return false;
+        Configuration conf = taskContext.getConfiguration();
+        if (! GDStagingUtils.isStagingEnabled(conf)) {
+            return false;
+        }
+        // Tasks which did not write to GridDB, such as map tasks of a job with reducers, have no staging container
+        GridStore gridstore = GDStagingUtils.getGridStore(conf);
+        try {
+            return gridstore.getContainerInfo(getStagingContainerName(taskContext)) != null;
+        } finally {
+            gridstore.close();
+        }
     }
 
     /*
@@ -61,6 +105,20 @@ public class GSOutputCommitter extends OutputCommitter {
      */
     @Override
     public void commitTask(TaskAttemptContext taskContext) throws IOException {
+        Configuration conf = taskContext.getConfiguration();
+        if (! GDStagingUtils.isStagingEnabled(conf)) {
+            return;
+        }
+        GridStore gridstore = GDStagingUtils.getGridStore(conf);
+        try {
+            String stagingName = getStagingContainerName(taskContext);
+            if (gridstore.getContainerInfo(stagingName) != null) {
+                GDStagingUtils.promoteStagingContainer(gridstore, GS_OUTPUT_CONTAINER_NAME.get(conf), stagingName,
+                        GDPropertyUtils.getInteger(conf, GS_OUTPUT_ROW_BUFFER_SIZE));
+            }
+        } finally {
+            gridstore.close();
+        }
     }
 
     /*
@@ -69,5 +127,34 @@ public class GSOutputCommitter extends OutputCommitter {
      */
     @Override
     public void abortTask(TaskAttemptContext taskContext) throws IOException {
+        Configuration conf = taskContext.getConfiguration();
+        if (! GDStagingUtils.isStagingEnabled(conf)) {
+            return;
+        }
+        GridStore gridstore = GDStagingUtils.getGridStore(conf);
+        try {
+            gridstore.dropContainer(getStagingContainerName(taskContext));
+        } finally {
+            gridstore.close();
+        }
+    }
+
+    private static String getStagingContainerName(TaskAttemptContext taskContext) {
+        return GDStagingUtils.getStagingContainerName(GS_OUTPUT_CONTAINER_NAME.get(taskContext.getConfiguration()),
+                taskContext.getTaskAttemptID());
+    }
+
+    private static void dropStagingContainers(JobContext jobContext) throws IOException {
+        Configuration conf = jobContext.getConfiguration();
+        if (! GDStagingUtils.isStagingEnabled(conf)) {
+            return;
+        }
+        GridStore gridstore = GDStagingUtils.getGridStore(conf);
+        try {
+            GDStagingUtils.dropStagingContainers(gridstore,
+                    GDStagingUtils.getStagingContainerPrefix(GS_OUTPUT_CONTAINER_NAME.get(conf), jobContext.getJobID()));
+        } finally {
+            gridstore.close();
+        }
     }
 }
@@ -0,0 +1,71 @@
+/*
+   Copyright (c) 2016 TOSHIBA CORPORATION.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.toshiba.mwcloud.gs.hadoop.mapreduce;
+
+import static com.toshiba.mwcloud.gs.hadoop.conf.GDProperty.*;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.hadoop.mapreduce.OutputCommitter;
+import org.apache.hadoop.mapreduce.OutputFormat;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+
+import com.toshiba.mwcloud.gs.hadoop.io.GSRowWritable;
+
+/**
+ * <div lang="ja">
+ * GridDBのRowオブジェクトを利用した、書き込み先のコンテナをキーで指定するGridDB用OutputFormatクラスです。<br/>
+ * キーには書き込み先のコンテナ名を指定します。<br/>
+ * 書き込み先のコンテナに直接書き込むため、gs.output.stagingにtrueを指定することはできません。
+ * </div><div lang="en">
+ * GridDB OutputFormat class using GridDB Row object, in which the output container is specified by the key.<br/>
+ * Specify the name of the output container as the key.<br/>
+ * Rows are written directly to the output containers, so gs.output.staging cannot be set to true.
+ * </div>
+ */
+public class GSRoutedRowOutputFormat extends OutputFormat<Text, GSRowWritable> {
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapreduce.OutputFormat#getRecordWriter(org.apache.hadoop.mapreduce.TaskAttemptContext)
+     */
+    public RecordWriter<Text, GSRowWritable> getRecordWriter(TaskAttemptContext context) throws IOException, InterruptedException {
+        RecordWriter<Text, GSRowWritable> writer = new GSRoutedRowRecordWriter(context);
+        return writer;
+    }
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapreduce.OutputFormat#checkOutputSpecs(org.apache.hadoop.mapreduce.JobContext)
+     */
+    @Override
+    public void checkOutputSpecs(JobContext context) throws IOException, InterruptedException {
+        if (Boolean.parseBoolean(GS_OUTPUT_STAGING.get(context.getConfiguration()))) {
+            throw new IOException("'" + GS_OUTPUT_STAGING.getKey() + "' cannot be used with " + GSRoutedRowOutputFormat.class.getName());
+        }
+    }
+    /*
+     * (non Javadoc)
+     * @see org.apache.hadoop.mapreduce.OutputFormat#getOutputCommitter(org.apache.hadoop.mapreduce.TaskAttemptContext)
+     */
+    @Override
+    public OutputCommitter getOutputCommitter(TaskAttemptContext context) throws IOException,
+            InterruptedException {
+        return new GSOutputCommitter();
+    }
+}
@@ -76,7 +76,7 @@ public class GSRowRecordReader extends RecordReader<GSColumnKeyWritable, GSRowWr
 
         GDRowSet rowSet = reader_.getRowSet();
         Row row = rowSet.nextRow();
-        value_.setValues(row);
+        value_.setValues(row, reader_.getColumnIndexes());
 
         GSType type = key_.getType();
         if (type != null) {
@@ -76,6 +76,6 @@ public class GSRowRecordWriter extends RecordWriter<NullWritable, GSRowWritable>
     public void write(NullWritable key, GSRowWritable value) throws IOException {
         Row row = writer_.getRow();
         value.getValues(row);
-        writer_.putRow(row);
+        writer_.putRow(row, value);
     }
 }
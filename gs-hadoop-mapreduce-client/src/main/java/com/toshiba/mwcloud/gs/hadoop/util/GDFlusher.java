@@ -0,0 +1,193 @@
+/*
+   Copyright (c) 2016 TOSHIBA CORPORATION.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.toshiba.mwcloud.gs.hadoop.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import com.toshiba.mwcloud.gs.GSException;
+import com.toshiba.mwcloud.gs.GridStore;
+import com.toshiba.mwcloud.gs.Row;
+
+/**
+ * <div lang="ja">
+ * バックグラウンドのスレッドでロウデータをGridDBに一括して書き込みます。<br/>
+ * 書き込み中のロウデータに対応するバッファは、書き込みが完了すると再利用のために返却されます。
+ * 空いているバッファがない場合はバッファが返却されるまで待つため、書き込み中のバッチの数はバッファの数までに制限されます。<br/>
+ * 書き込みで例外が発生した場合、以降のバッチは書き込まずに破棄し、次の呼び出しで例外を通知します。
+ * @param <T> バッファの型
+ * </div><div lang="en">
+ * Write row data to GridDB collectively in a background thread.<br/>
+ * A buffer corresponding to row data being written is returned for reuse when writing is completed.
+ * If no buffer is free, the caller waits until a buffer is returned, so the number of batches in flight is limited to the number of buffers.<br/>
+ * If an exception occurs while writing, subsequent batches are discarded without writing and the exception is reported at the next call.
+ * @param <T> data type of buffer
+ * </div>
+ */
+class GDFlusher<T> implements Runnable {
+    private final GridStore gridstore_;
+
+    private final BlockingQueue<Batch<T>> batchQueue_ = new LinkedBlockingQueue<Batch<T>>();
+
+    private final BlockingQueue<T> bufferQueue_ = new LinkedBlockingQueue<T>();
+
+    private final Thread thread_;
+
+    private volatile Throwable error_ = null;
+
+    private boolean closed_ = false;
+
+    /**
+     * <div lang="ja">
+     * コンストラクタ
+     * @param gridstore 書き込みに使用するGridStoreオブジェクト。開始後はバックグラウンドのスレッドでのみ使用されます
+     * @param bufferList 空いているバッファのリスト
+     * </div><div lang="en">
+     * Constructor
+     * @param gridstore GridStore object used for writing, which is used only by the background thread after started
+     * @param bufferList list of free buffers
+     * </div>
+     */
+    GDFlusher(GridStore gridstore, List<T> bufferList) {
+        gridstore_ = gridstore;
+        bufferQueue_.addAll(bufferList);
+        thread_ = new Thread(this, "GDFlusher");
+        thread_.setDaemon(true);
+    }
+
+    /**
+     * <div lang="ja">
+     * 書き込みを開始します。
+     * </div><div lang="en">
+     * Start writing.
+     * </div>
+     */
+    void start() {
+        thread_.start();
+    }
+
+    /**
+     * <div lang="ja">
+     * バッチをバックグラウンドでの書き込み対象に追加し、空いているバッファを返します。
+     * @param rowsMap コンテナ名とロウデータのリストのマップ
+     * @param buffer ロウデータに対応するバッファ。書き込みが完了すると返却されます
+     * @return 空いているバッファ
+     * @throws GSException 以前の書き込みでGridDBで例外が発生しました
+     * </div><div lang="en">
+     * Add a batch to be written in the background and return a free buffer.
+     * @param rowsMap map of container names and lists of row data
+     * @param buffer buffer corresponding to the row data, which is returned when writing is completed
+     * @return free buffer
+     * @throws GSException an exception occurred in GridDB in previous writing
+     * </div>
+     */
+    T flush(Map<String, List<Row>> rowsMap, T buffer) throws GSException {
+        checkError();
+        batchQueue_.add(new Batch<T>(rowsMap, buffer));
+        try {
+            return bufferQueue_.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GSException(e);
+        }
+    }
+
+    /**
+     * <div lang="ja">
+     * 以前の書き込みで例外が発生していれば、その例外を通知します。
+     * @throws GSException 以前の書き込みでGridDBで例外が発生しました
+     * </div><div lang="en">
+     * Report the exception if one occurred in previous writing.
+     * @throws GSException an exception occurred in GridDB in previous writing
+     * </div>
+     */
+    void checkError() throws GSException {
+        Throwable error = error_;
+        if (error != null) {
+            if (error instanceof GSException) {
+                throw (GSException) error;
+            }
+            throw new GSException(error);
+        }
+    }
+
+    /**
+     * <div lang="ja">
+     * 追加済みのバッチの書き込み完了を待ち、バックグラウンドのスレッドを終了します。
+     * @throws GSException GridDBで例外が発生しました
+     * </div><div lang="en">
+     * Wait for the added batches to be written and finish the background thread.
+     * @throws GSException an exception occurred in GridDB
+     * </div>
+     */
+    void close() throws GSException {
+        if (! closed_) {
+            closed_ = true;
+            batchQueue_.add(new Batch<T>(null, null));
+            try {
+                thread_.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GSException(e);
+            }
+        }
+        checkError();
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Runnable#run()
+     */
+    @Override
+    public void run() {
+        while (true) {
+            Batch<T> batch;
+            try {
+                batch = batchQueue_.take();
+            } catch (InterruptedException e) {
+                error_ = e;
+                return;
+            }
+            if (batch.rowsMap_ == null) {
+                return;
+            }
+
+            try {
+                if (error_ == null) {
+                    gridstore_.multiPut(batch.rowsMap_);
+                }
+            } catch (Throwable e) {
+                error_ = e;
+            } finally {
+                bufferQueue_.add(batch.buffer_);
+            }
+        }
+    }
+
+    private static class Batch<T> {
+        private final Map<String, List<Row>> rowsMap_;
+
+        private final T buffer_;
+
+        private Batch(Map<String, List<Row>> rowsMap, T buffer) {
+            rowsMap_ = rowsMap;
+            buffer_ = buffer;
+        }
+    }
+}
@@ -16,11 +16,23 @@
 
 package com.toshiba.mwcloud.gs.hadoop.util;
 
+import java.math.BigInteger;
 import java.net.InetAddress;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,10 +43,17 @@ import static com.toshiba.mwcloud.gs.hadoop.conf.GDProperty.*;
 import com.toshiba.mwcloud.gs.hadoop.conf.GDPropertyUtils;
 import com.toshiba.mwcloud.gs.hadoop.mapreduce.GSContainerSplit;
 
+import com.toshiba.mwcloud.gs.AggregationResult;
+import com.toshiba.mwcloud.gs.Container;
+import com.toshiba.mwcloud.gs.ContainerInfo;
 import com.toshiba.mwcloud.gs.GSException;
+import com.toshiba.mwcloud.gs.GSType;
 import com.toshiba.mwcloud.gs.GridStore;
 import com.toshiba.mwcloud.gs.GridStoreFactory;
 import com.toshiba.mwcloud.gs.PartitionController;
+import com.toshiba.mwcloud.gs.Query;
+import com.toshiba.mwcloud.gs.Row;
+import com.toshiba.mwcloud.gs.RowSet;
 
 /**
  * <div lang="ja">
@@ -44,12 +63,20 @@ import com.toshiba.mwcloud.gs.PartitionController;
  * </div>
  */
 public class GDInputFormat {
+    private static final int ROW_COUNT_BATCH_SIZE = 1000;
+
     /**
      * <div lang="ja">
      * org.apache.hadoop.mapred.InputSplit用のgetSplits処理です。<br/>
      * 返却するInputSplitオブジェクトの個数は入力対象のパーティション数と引数numSplitsで指定された値の小さい方になります。<br/>
      * 各InputSplitオブジェクトには、対応するMapタスクで処理するパーティションとコンテナ情報が格納されます。<br/>
-     * 引数numSplitsの値が入力対象のパーティション数より小さい場合は、複数パーティションを処理対象とするInputSplitオブジェクトが生成されます。
+     * 引数numSplitsの値が入力対象のパーティション数より小さい場合は、複数パーティションを処理対象とするInputSplitオブジェクトが生成されます。<br/>
+     * プロパティgs.input.split.key.range.rowsが指定された場合、その値を超えるロウ数のコンテナはロウキーの範囲毎のInputSplitオブジェクトに分割され、上記のInputSplitオブジェクトに追加されます。<br/>
+     * プロパティgs.input.split.modeが"BALANCE"の場合は、パーティション単位ではなく、ロウ数がほぼ等しくなるようにコンテナ単位でnumSplits個のInputSplitオブジェクトに割り当てます。<br/>
+     * プロパティgs.input.split.modeが"COMBINE"の場合は、ホスト毎にパーティションをまたいでコンテナをまとめ、ロウ数がgs.input.split.combine.rowsを超えない範囲で1つのInputSplitオブジェクトに割り当てます。この場合numSplitsは使用しません。<br/>
+     * プロパティgs.input.split.time.windowが指定された場合、上記の各InputSplitオブジェクトをgs.input.split.time.startからgs.input.split.time.endまでの時間窓毎に分割し、ロウキーの範囲として時間窓を設定します。<br/>
+     * プロパティgs.input.split.threadsに2以上の値が指定された場合、パーティション毎のコンテナ名、ホスト、ロウ数の取得を指定されたスレッド数で並列に実行します。<br/>
+     * プロパティgs.input.split.cache.dirが指定された場合、パーティション毎のコンテナ名とホストをキャッシュし、有効なキャッシュがあればコンテナ名の一覧取得を省略します。
      * @param numSplits スプリット数
      * @param conf Configurationオブジェクト
      * @return InputSplitオブジェクトの配列
@@ -58,7 +85,15 @@ public class GDInputFormat {
      * getSplits method for org.apache.hadoop.mapred.InputSplit.<br/>
      * The number of InputSplit objects to return will be the smaller of the number of partitions for input processing and the value specified in the argument numSplits.<br/>
      * The partition and container information to be processed in the corresponding Map task is stored in each InputSplit object.<br/>
-     * If the value of the argument numSplits is smaller than the number of partitions, an InputSplit object targeting multiple partitions for processing is generated.
+     * If the value of the argument numSplits is smaller than the number of partitions, an InputSplit object targeting multiple partitions for processing is generated.<br/>
+     * If the property gs.input.split.key.range.rows is specified, containers with more rows than its value are divided into one InputSplit object per row key range in addition to the InputSplit objects above.<br/>
+     * If the property gs.input.split.mode is "BALANCE", containers rather than whole partitions are assigned to numSplits InputSplit objects so that each holds roughly the same number of rows.<br/>
+     * If the property gs.input.split.mode is "COMBINE", containers on the same host are packed across partitions into InputSplit objects
+     * holding at most gs.input.split.combine.rows rows each. numSplits is not used in this case.<br/>
+     * If the property gs.input.split.time.window is specified, each InputSplit object above is divided into one per time window
+     * from gs.input.split.time.start to gs.input.split.time.end, and the time window is set as its row key range.<br/>
+     * If the property gs.input.split.threads is 2 or more, container names, hosts and row counts of each partition are acquired concurrently by that number of threads.<br/>
+     * If the property gs.input.split.cache.dir is specified, container names and hosts of each partition are cached and listing container names is skipped while the cache is valid.
      * @param numSplits number of splits
      * @param conf Configuration object
      * @return InputSplit object array
@@ -68,9 +103,8 @@ public class GDInputFormat {
     public org.apache.hadoop.mapred.InputSplit[] getSplitArray(int numSplits, Configuration conf) throws GSException {
         Properties prop = GDPropertyUtils.getGSProp(conf, GDPropertyUtils.getGSPropertiesToRead());
         GridStore gridstore = GridStoreFactory.getInstance().getGridStore(prop);
-        PartitionController controller = gridstore.getPartitionController();
 
-        GSContainerSplit[] gsSplits = getSplits(conf, controller, numSplits);
+        GSContainerSplit[] gsSplits = getSplits(conf, gridstore, numSplits);
         gridstore.close();
         if (gsSplits == null) {
             return null;
@@ -87,7 +121,13 @@ public class GDInputFormat {
      * org.apache.hadoop.mapreduce.InputSplit用のgetSplits処理です。<br/>
      * 返却するInputSplitオブジェクトの個数は入力対象のパーティション数と引数numSplitsで指定された値の小さい方になります。<br/>
      * 各InputSplitオブジェクトには、対応するMapタスクで処理するパーティションとコンテナ情報が格納されます。<br/>
-     * 引数numSplitsの値が入力対象のパーティション数より小さい場合は、複数パーティションを処理対象とするInputSplitオブジェクトが生成されます。
+     * 引数numSplitsの値が入力対象のパーティション数より小さい場合は、複数パーティションを処理対象とするInputSplitオブジェクトが生成されます。<br/>
+     * プロパティgs.input.split.key.range.rowsが指定された場合、その値を超えるロウ数のコンテナはロウキーの範囲毎のInputSplitオブジェクトに分割され、上記のInputSplitオブジェクトに追加されます。<br/>
+     * プロパティgs.input.split.modeが"BALANCE"の場合は、パーティション単位ではなく、ロウ数がほぼ等しくなるようにコンテナ単位でnumSplits個のInputSplitオブジェクトに割り当てます。<br/>
+     * プロパティgs.input.split.modeが"COMBINE"の場合は、ホスト毎にパーティションをまたいでコンテナをまとめ、ロウ数がgs.input.split.combine.rowsを超えない範囲で1つのInputSplitオブジェクトに割り当てます。この場合numSplitsは使用しません。<br/>
+     * プロパティgs.input.split.time.windowが指定された場合、上記の各InputSplitオブジェクトをgs.input.split.time.startからgs.input.split.time.endまでの時間窓毎に分割し、ロウキーの範囲として時間窓を設定します。<br/>
+     * プロパティgs.input.split.threadsに2以上の値が指定された場合、パーティション毎のコンテナ名、ホスト、ロウ数の取得を指定されたスレッド数で並列に実行します。<br/>
+     * プロパティgs.input.split.cache.dirが指定された場合、パーティション毎のコンテナ名とホストをキャッシュし、有効なキャッシュがあればコンテナ名の一覧取得を省略します。
      * @param numSplits スプリット数
      * @param conf Configurationオブジェクト
      * @return InputSplitオブジェクトのリスト
@@ -96,7 +136,15 @@ public class GDInputFormat {
      * getSplits method for org.apache.hadoop.mapreduce.InputSplit.<br/>
      * The number of InputSplit objects to return will be the smaller of the number of partitions for input processing and the value specified in the argument numSplits.<br/>
      * The partition and container information to be processed in the corresponding Map task is stored in each InputSplit object.<br/>
-     * If the value of the argument numSplits is smaller than the number of partitions subject to input, an InputSplit object targeting multiple partitions for processing is generated.
+     * If the value of the argument numSplits is smaller than the number of partitions subject to input, an InputSplit object targeting multiple partitions for processing is generated.<br/>
+     * If the property gs.input.split.key.range.rows is specified, containers with more rows than its value are divided into one InputSplit object per row key range in addition to the InputSplit objects above.<br/>
+     * If the property gs.input.split.mode is "BALANCE", containers rather than whole partitions are assigned to numSplits InputSplit objects so that each holds roughly the same number of rows.<br/>
+     * If the property gs.input.split.mode is "COMBINE", containers on the same host are packed across partitions into InputSplit objects
+     * holding at most gs.input.split.combine.rows rows each. numSplits is not used in this case.<br/>
+     * If the property gs.input.split.time.window is specified, each InputSplit object above is divided into one per time window
+     * from gs.input.split.time.start to gs.input.split.time.end, and the time window is set as its row key range.<br/>
+     * If the property gs.input.split.threads is 2 or more, container names, hosts and row counts of each partition are acquired concurrently by that number of threads.<br/>
+     * If the property gs.input.split.cache.dir is specified, container names and hosts of each partition are cached and listing container names is skipped while the cache is valid.
      * @param numSplits number of splits
      * @param conf Configuration object
      * @return InputSplit object list
@@ -106,9 +154,8 @@ public class GDInputFormat {
     public List<org.apache.hadoop.mapreduce.InputSplit> getSplitList(int numSplits, Configuration conf) throws GSException {
         Properties prop = GDPropertyUtils.getGSProp(conf, GDPropertyUtils.getGSPropertiesToRead());
         GridStore gridstore = GridStoreFactory.getInstance().getGridStore(prop);
-        PartitionController controller = gridstore.getPartitionController();
 
-        GSContainerSplit[] gsSplits = getSplits(conf, controller, numSplits);
+        GSContainerSplit[] gsSplits = getSplits(conf, gridstore, numSplits);
         gridstore.close();
         if (gsSplits == null) {
             return null;
@@ -120,102 +167,276 @@ public class GDInputFormat {
         return splits;
     }
 
-    private GSContainerSplit[] getSplits(Configuration conf, PartitionController controller, int numSplits) throws GSException {
-        List<String> containerNames = getContainerNameList(conf, controller);
-        if (containerNames == null) {
-            return null;
+    private GSContainerSplit[] getSplits(Configuration conf, GridStore gridstore, int numSplits) throws GSException {
+        int keyRangeRows = GDPropertyUtils.getInteger(conf, GS_INPUT_SPLIT_KEY_RANGE_ROWS);
+        // Partial results of AVG, VARIANCE and STDDEV for key ranges cannot be combined
+        if (keyRangeRows > 0 && ! GDPropertyUtils.getPropertyList(conf, GS_INPUT_AGGREGATION).isEmpty()) {
+            throw new GSException("'" + GS_INPUT_AGGREGATION.getKey() + "' cannot be used with '" + GS_INPUT_SPLIT_KEY_RANGE_ROWS.getKey() + "'");
         }
-
-        List<List<String>> partitionInfoList = new ArrayList<List<String>>();
-        for (int i = 0; i < controller.getPartitionCount(); i++) {
-            partitionInfoList.add(new ArrayList<String>());
+        if (GDPropertyUtils.getInteger(conf, GS_INPUT_FETCH_SIZE) > 0 && GDQueryUtils.hasLimitClause(GS_INPUT_TQL_WHERE.get(conf))) {
+            throw new GSException("'" + GS_INPUT_FETCH_SIZE.getKey() + "' cannot be used with a LIMIT or OFFSET clause in '" + GS_INPUT_TQL_WHERE.getKey() + "'");
         }
-        for (String containerName : containerNames) {
-            int j = controller.getPartitionIndexOfContainer(containerName);
-            partitionInfoList.get(j).add(containerName);
+        String splitMode = GS_INPUT_SPLIT_MODE.get(conf);
+        boolean balance = splitMode.equals("BALANCE");
+        boolean combine = splitMode.equals("COMBINE");
+        List<GSContainerSplit> keyRangeSplitList = new ArrayList<GSContainerSplit>();
+
+        boolean countRows = keyRangeRows > 0 || balance || combine;
+
+        GDPartitionInfo[] partitionInfoList = getPartitionInfoList(conf, gridstore, countRows);
+        GDSchemaCache schemaCache = new GDSchemaCache(conf);
+
+        Map<String, Long> rowCountMap = null;
+        if (countRows) {
+            rowCountMap = new HashMap<String, Long>();
+            for (GDPartitionInfo partitionInfo : partitionInfoList) {
+                if (partitionInfo.getRowCountMap() != null) {
+                    rowCountMap.putAll(partitionInfo.getRowCountMap());
+                }
+            }
         }
 
-        int partitionListLength = 0;
-        for (List<String> list : partitionInfoList) {
+        HashMap<String, Long> hostMap = new HashMap<String, Long>();
+        List<String[]> partitionHostInfoList = new ArrayList<String[]>();
+        List<List<String>> containerNameInfoList = new ArrayList<List<String>>();
+
+        for (GDPartitionInfo partitionInfo : partitionInfoList) {
+            List<String> list = partitionInfo.getContainerNameList();
             if (list.size() > 0) {
-                partitionListLength++;
+                long load = 1;
+                if (rowCountMap != null) {
+                    for (String containerName : list) {
+                        load += rowCountMap.get(containerName);
+                    }
+                }
+                String[] partitionHost = getHosts(partitionInfo.getHostList(), hostMap, load);
+                if (keyRangeRows > 0) {
+                    list = createKeyRangeSplits(gridstore, schemaCache, partitionHost, list, rowCountMap, keyRangeRows, keyRangeSplitList);
+                }
+                if (list.size() > 0) {
+                    partitionHostInfoList.add(partitionHost);
+                    containerNameInfoList.add(list);
+                }
             }
         }
 
-        int[] partitionNoList = new int[partitionListLength];
-        String[][] containerNameList = new String[partitionListLength][];
+        GSContainerSplit[] splits;
+        if (balance) {
+            splits = createBalancedSplits(partitionHostInfoList, containerNameInfoList, rowCountMap, numSplits);
+        } else if (combine) {
+            long combineRows = GDPropertyUtils.getInteger(conf, GS_INPUT_SPLIT_COMBINE_ROWS);
+            splits = createCombinedSplits(partitionHostInfoList, containerNameInfoList, rowCountMap, combineRows);
+        } else {
+            int partitionListLength = partitionHostInfoList.size();
+            String[][] partitionHostList = new String[partitionListLength][];
+            String[][] containerNameList = new String[partitionListLength][];
+
+            for (int i = 0; i < partitionListLength; i++) {
+                List<String> list = containerNameInfoList.get(i);
+                partitionHostList[i] = partitionHostInfoList.get(i);
+                containerNameList[i] = list.toArray(new String[list.size()]);
+            }
 
-        int partitionListIndex = 0;
-        int partitionNo = 0;
-        for (List<String> list : partitionInfoList) {
-            if (list.size() > 0) {
-                partitionNoList[partitionListIndex] = partitionNo;
-                containerNameList[partitionListIndex] = list.toArray(new String[list.size()]);
-                partitionListIndex++;
+            splits = createSplits(partitionHostList, containerNameList, numSplits);
+        }
+
+        if (keyRangeSplitList.size() > 0) {
+            for (GSContainerSplit split : splits) {
+                keyRangeSplitList.add(split);
             }
-            partitionNo++;
+            splits = keyRangeSplitList.toArray(new GSContainerSplit[keyRangeSplitList.size()]);
         }
 
-        GSContainerSplit[] splits = createSplits(partitionNoList, containerNameList, conf, controller, numSplits);
+        if (GS_INPUT_SPLIT_TIME_WINDOW.get(conf) != null) {
+            splits = createTimeWindowSplits(conf, splits);
+        }
+
+        if (schemaCache.isEnabled()) {
+            for (GSContainerSplit split : splits) {
+                String containerName = split.getDelegate().getContainerNames(0).next();
+                ContainerInfo containerInfo = schemaCache.getContainerInfo(gridstore, containerName);
+                if (containerInfo == null) {
+                    throw new GSException("Unknown container name(" + containerName + ")");
+                }
+                split.setSchema(containerInfo);
+            }
+        }
 
         return splits;
     }
 
-    private List<String> getContainerNameList(Configuration conf, PartitionController controller) throws GSException {
-        List<String> containerNameList;
+    private GSContainerSplit[] createTimeWindowSplits(Configuration conf, GSContainerSplit[] splits) throws GSException {
+        long window = GDPropertyUtils.parseDuration(GS_INPUT_SPLIT_TIME_WINDOW.get(conf));
 
-        String regex = GS_INPUT_CONTAINER_NAME_REGEX.get(conf);
-        if (regex == null) {
-            containerNameList = GDPropertyUtils.getPropertyList(conf, GS_INPUT_CONTAINER_NAME_LIST);
-            if (containerNameList.size() > 0) {
-                return containerNameList;
-            }
+        long now = System.currentTimeMillis();
+        String endValue = GS_INPUT_SPLIT_TIME_END.get(conf);
+        long end = (endValue == null) ? now : GDPropertyUtils.parseTime(endValue, now);
+        String startValue = GS_INPUT_SPLIT_TIME_START.get(conf);
+        if (startValue == null) {
+            throw new GSException("'" + GS_INPUT_SPLIT_TIME_START.getKey() + "' must be defined.");
+        }
+        long start = GDPropertyUtils.parseTime(startValue, end);
+        if (start >= end) {
+            throw new GSException("'" + GS_INPUT_SPLIT_TIME_START.getKey() + "' must be before '" + GS_INPUT_SPLIT_TIME_END.getKey() + "'");
+        }
 
-            throw new GSException("'" + GS_INPUT_CONTAINER_NAME_LIST.getKey() + "' or '" + GS_INPUT_CONTAINER_NAME_REGEX.getKey() + "' must be defined.");
+        List<Long> boundaryList = new ArrayList<Long>();
+        boundaryList.add(start);
+        long boundary = start - (start % window);
+        if (start % window < 0) {
+            boundary -= window;
+        }
+        for (boundary += window; boundary < end; boundary += window) {
+            boundaryList.add(boundary);
+        }
+        boundaryList.add(end);
+        int numWindows = boundaryList.size() - 1;
+
+        List<GSContainerSplit> splitList = new ArrayList<GSContainerSplit>();
+        for (GSContainerSplit split : splits) {
+            com.toshiba.mwcloud.gs.hadoop.mapred.GSContainerSplit delegate = split.getDelegate();
+            for (int i = 0; i < numWindows; i++) {
+                long windowStart = boundaryList.get(i);
+                long windowEnd = boundaryList.get(i + 1);
+                if (delegate.getKeyRangeStart() != null) {
+                    windowStart = Math.max(windowStart, delegate.getKeyRangeStart());
+                }
+                if (delegate.getKeyRangeEnd() != null) {
+                    windowEnd = Math.min(windowEnd, delegate.getKeyRangeEnd());
+                }
+                if (windowStart >= windowEnd) {
+                    continue;
+                }
+                GSContainerSplit windowSplit = new GSContainerSplit(split, windowStart, windowEnd);
+                if (delegate.getRowCount() >= 0) {
+                    windowSplit.setRowCount(delegate.getRowCount() / numWindows);
+                }
+                splitList.add(windowSplit);
+            }
         }
 
-        Pattern p = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+        return splitList.toArray(new GSContainerSplit[splitList.size()]);
+    }
 
-        containerNameList = new ArrayList<String>();
+    private GDPartitionInfo[] getPartitionInfoList(Configuration conf, GridStore gridstore, boolean countRows) throws GSException {
+        PartitionController controller = gridstore.getPartitionController();
         int partitionCount = controller.getPartitionCount();
-        for (int i = 0; i < partitionCount; i++) {
-            List<String> containerNameListInPartition = controller.getContainerNames(i, 0, null);
-            for (String containerName : containerNameListInPartition) {
-                Matcher m = p.matcher(containerName);
-                if (! m.matches()) {
-                    continue;
+        int numThreads = Math.min(GDPropertyUtils.getInteger(conf, GS_INPUT_SPLIT_THREADS), partitionCount);
+
+        GDSplitPlanCache cache = GDSplitPlanCache.getInstance(conf);
+        if (cache != null) {
+            GDPartitionInfo[] partitionInfoList = cache.load(controller);
+            if (partitionInfoList != null) {
+                if (countRows) {
+                    scanPartitions(conf, gridstore, controller, partitionInfoList, new PartitionScanner(false, null, 0, false, true), numThreads);
                 }
-                if (m.start() == 0 && m.end() == containerName.length()) {
-                    containerNameList.add(containerName);
+                return partitionInfoList;
+            }
+        }
+
+        GDPartitionInfo[] partitionInfoList = new GDPartitionInfo[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitionInfoList[i] = new GDPartitionInfo(i);
+        }
+
+        Pattern p = null;
+        String regex = GS_INPUT_CONTAINER_NAME_REGEX.get(conf);
+        if (regex == null) {
+            List<String> containerNameList = GDPropertyUtils.getPropertyList(conf, GS_INPUT_CONTAINER_NAME_LIST);
+            if (containerNameList.size() == 0) {
+                throw new GSException("'" + GS_INPUT_CONTAINER_NAME_LIST.getKey() + "' or '" + GS_INPUT_CONTAINER_NAME_REGEX.getKey() + "' must be defined.");
+            }
+            for (String containerName : containerNameList) {
+                int j = controller.getPartitionIndexOfContainer(containerName);
+                partitionInfoList[j].getContainerNameList().add(containerName);
+            }
+        } else {
+            p = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+        }
+
+        scanPartitions(conf, gridstore, controller, partitionInfoList, new PartitionScanner(true, p, GDPropertyUtils.getInteger(conf, GS_INPUT_SPLIT_LIST_PAGE_SIZE), cache != null, countRows), numThreads);
+
+        if (p != null) {
+            boolean found = false;
+            for (GDPartitionInfo partitionInfo : partitionInfoList) {
+                if (partitionInfo.getContainerNameList().size() > 0) {
+                    found = true;
+                    break;
                 }
             }
+            if (! found) {
+                throw new GSException("'" + regex + "' doesn't match any container names");
+            }
         }
 
-        if (containerNameList.size() == 0) {
-            throw new GSException("'" + regex + "' doesn't match any container names");
+        if (cache != null) {
+            cache.store(partitionInfoList);
         }
 
-        return containerNameList;
+        return partitionInfoList;
     }
 
-    private GSContainerSplit[] createSplits(int[] partitionNoList, String[][] containerNameList,
-            Configuration conf, PartitionController controller, int numSplits) throws GSException {
-        String[] partitionHostList = new String[partitionNoList.length];
+    private void scanPartitions(Configuration conf, GridStore gridstore, PartitionController controller,
+            final GDPartitionInfo[] partitionInfoList, final PartitionScanner scanner, int numThreads) throws GSException {
+        if (numThreads <= 1) {
+            for (GDPartitionInfo partitionInfo : partitionInfoList) {
+                scanner.scan(gridstore, controller, partitionInfo);
+            }
+            return;
+        }
 
-        HashMap<String, Integer> hostMap = new HashMap<String, Integer>();
-        for (int i = 0; i < partitionNoList.length; i++) {
-            partitionHostList[i] = getHost(controller, partitionNoList[i], hostMap);
+        final Properties prop = GDPropertyUtils.getGSProp(conf, GDPropertyUtils.getGSPropertiesToRead());
+        final AtomicInteger nextIndex = new AtomicInteger(0);
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<Void>> futureList = new ArrayList<Future<Void>>(numThreads);
+            for (int i = 0; i < numThreads; i++) {
+                futureList.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws GSException {
+                        GridStore gridstore = GridStoreFactory.getInstance().getGridStore(prop);
+                        try {
+                            PartitionController controller = gridstore.getPartitionController();
+                            int index;
+                            while ((index = nextIndex.getAndIncrement()) < partitionInfoList.length) {
+                                scanner.scan(gridstore, controller, partitionInfoList[index]);
+                            }
+                        } catch (GSException e) {
+                            nextIndex.set(partitionInfoList.length);
+                            throw e;
+                        } finally {
+                            gridstore.close();
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futureList) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GSException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GSException) {
+                throw (GSException) e.getCause();
+            }
+            throw new GSException(e.getCause());
+        } finally {
+            executor.shutdownNow();
         }
+    }
 
+    private GSContainerSplit[] createSplits(String[][] partitionHostList, String[][] containerNameList, int numSplits) {
         GSContainerSplit[] splits = null;
 
-        if (partitionNoList.length > numSplits) {
+        if (partitionHostList.length > numSplits) {
             if (numSplits <= 0) {
                 numSplits = 1;
             }
 
-            int step = partitionNoList.length / numSplits;
-            int remainder = partitionNoList.length % numSplits;
+            int step = partitionHostList.length / numSplits;
+            int remainder = partitionHostList.length % numSplits;
 
             splits = new GSContainerSplit[numSplits];
             int index = 0;
@@ -226,7 +447,7 @@ public class GDInputFormat {
                     length += 1;
                 }
 
-                String[] splitPartitionHostList = new String[length];
+                String[][] splitPartitionHostList = new String[length][];
                 String[][] splitContainerNameList = new String[length][];
 
                 for (int j = 0; j < length; j++) {
@@ -238,10 +459,10 @@ public class GDInputFormat {
                 splits[i] = new GSContainerSplit(splitPartitionHostList, splitContainerNameList);
             }
         } else {
-            splits = new GSContainerSplit[partitionNoList.length];
+            splits = new GSContainerSplit[partitionHostList.length];
 
-            for (int i = 0; i < partitionNoList.length; i++) {
-                String[] splitPartitionHostList = new String[1];
+            for (int i = 0; i < partitionHostList.length; i++) {
+                String[][] splitPartitionHostList = new String[1][];
                 String[][] splitContainerNameList = new String[1][];
 
                 splitPartitionHostList[0] = partitionHostList[i];
@@ -254,12 +475,275 @@ public class GDInputFormat {
         return splits;
     }
 
-    private String getHost(PartitionController controller, int index, HashMap<String, Integer> hostMap) throws GSException {
-        List<InetAddress> list = controller.getHosts(index);
+    private GSContainerSplit[] createBalancedSplits(List<String[]> partitionHostList, List<List<String>> containerNameList,
+            Map<String, Long> rowCountMap, int numSplits) {
+        final List<String> nameList = new ArrayList<String>();
+        final List<Integer> partitionList = new ArrayList<Integer>();
+        final List<Long> rowCountList = new ArrayList<Long>();
+        for (int i = 0; i < containerNameList.size(); i++) {
+            for (String containerName : containerNameList.get(i)) {
+                nameList.add(containerName);
+                partitionList.add(i);
+                rowCountList.add(rowCountMap.get(containerName));
+            }
+        }
+
+        List<Integer> order = new ArrayList<Integer>();
+        for (int i = 0; i < nameList.size(); i++) {
+            order.add(i);
+        }
+        Collections.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                int ret = rowCountList.get(o2).compareTo(rowCountList.get(o1));
+                if (ret == 0) {
+                    ret = nameList.get(o1).compareTo(nameList.get(o2));
+                }
+                return ret;
+            }
+        });
+
+        if (numSplits <= 0) {
+            numSplits = 1;
+        }
+        if (numSplits > nameList.size()) {
+            numSplits = nameList.size();
+        }
+
+        final long[] binRowCount = new long[numSplits];
+        List<TreeMap<Integer, List<String>>> binList = new ArrayList<TreeMap<Integer, List<String>>>();
+        PriorityQueue<Integer> binQueue = new PriorityQueue<Integer>(Math.max(numSplits, 1), new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                int ret = Long.valueOf(binRowCount[o1]).compareTo(binRowCount[o2]);
+                if (ret == 0) {
+                    ret = o1.compareTo(o2);
+                }
+                return ret;
+            }
+        });
+        for (int i = 0; i < numSplits; i++) {
+            binList.add(new TreeMap<Integer, List<String>>());
+            binQueue.add(i);
+        }
+
+        for (int index : order) {
+            int bin = binQueue.poll();
+            TreeMap<Integer, List<String>> partitionMap = binList.get(bin);
+            List<String> list = partitionMap.get(partitionList.get(index));
+            if (list == null) {
+                list = new ArrayList<String>();
+                partitionMap.put(partitionList.get(index), list);
+            }
+            list.add(nameList.get(index));
+            binRowCount[bin] += rowCountList.get(index);
+            binQueue.add(bin);
+        }
+
+        GSContainerSplit[] splits = new GSContainerSplit[numSplits];
+        for (int i = 0; i < numSplits; i++) {
+            TreeMap<Integer, List<String>> partitionMap = binList.get(i);
+            String[][] splitPartitionHostList = new String[partitionMap.size()][];
+            String[][] splitContainerNameList = new String[partitionMap.size()][];
+
+            int j = 0;
+            for (Map.Entry<Integer, List<String>> entry : partitionMap.entrySet()) {
+                List<String> list = entry.getValue();
+                splitPartitionHostList[j] = partitionHostList.get(entry.getKey());
+                splitContainerNameList[j] = list.toArray(new String[list.size()]);
+                j++;
+            }
+
+            splits[i] = new GSContainerSplit(splitPartitionHostList, splitContainerNameList);
+            splits[i].setRowCount(binRowCount[i]);
+        }
+
+        return splits;
+    }
+
+    private GSContainerSplit[] createCombinedSplits(List<String[]> partitionHostList, List<List<String>> containerNameList,
+            Map<String, Long> rowCountMap, long combineRows) {
+        TreeMap<String, List<Integer>> hostPartitionMap = new TreeMap<String, List<Integer>>();
+        for (int i = 0; i < partitionHostList.size(); i++) {
+            List<Integer> list = hostPartitionMap.get(partitionHostList.get(i)[0]);
+            if (list == null) {
+                list = new ArrayList<Integer>();
+                hostPartitionMap.put(partitionHostList.get(i)[0], list);
+            }
+            list.add(i);
+        }
+
+        List<GSContainerSplit> splitList = new ArrayList<GSContainerSplit>();
+        for (Map.Entry<String, List<Integer>> entry : hostPartitionMap.entrySet()) {
+            List<String[]> hostList = new ArrayList<String[]>();
+            List<String[]> groupList = new ArrayList<String[]>();
+            long splitRowCount = 0;
+
+            for (int index : entry.getValue()) {
+                List<String> group = new ArrayList<String>();
+                for (String containerName : containerNameList.get(index)) {
+                    long rowCount = rowCountMap.get(containerName);
+                    if ((groupList.size() > 0 || group.size() > 0) && splitRowCount + rowCount > combineRows) {
+                        if (group.size() > 0) {
+                            hostList.add(partitionHostList.get(index));
+                            groupList.add(group.toArray(new String[group.size()]));
+                            group = new ArrayList<String>();
+                        }
+                        splitList.add(createCombinedSplit(hostList, groupList, splitRowCount));
+                        hostList = new ArrayList<String[]>();
+                        groupList = new ArrayList<String[]>();
+                        splitRowCount = 0;
+                    }
+                    group.add(containerName);
+                    splitRowCount += rowCount;
+                }
+                if (group.size() > 0) {
+                    hostList.add(partitionHostList.get(index));
+                    groupList.add(group.toArray(new String[group.size()]));
+                }
+            }
+            if (groupList.size() > 0) {
+                splitList.add(createCombinedSplit(hostList, groupList, splitRowCount));
+            }
+        }
+
+        return splitList.toArray(new GSContainerSplit[splitList.size()]);
+    }
+
+    private GSContainerSplit createCombinedSplit(List<String[]> hostList, List<String[]> groupList, long rowCount) {
+        String[][] splitPartitionHostList = hostList.toArray(new String[hostList.size()][]);
+        String[][] splitContainerNameList = groupList.toArray(new String[groupList.size()][]);
+
+        GSContainerSplit split = new GSContainerSplit(splitPartitionHostList, splitContainerNameList);
+        split.setRowCount(rowCount);
+        return split;
+    }
+
+    private void getRowCounts(GridStore gridstore, List<String> containerNames, Map<String, Long> rowCountMap) throws GSException {
+        for (int i = 0; i < containerNames.size(); i += ROW_COUNT_BATCH_SIZE) {
+            int end = Math.min(i + ROW_COUNT_BATCH_SIZE, containerNames.size());
+            List<Container<Object, Row>> containerList = new ArrayList<Container<Object, Row>>(end - i);
+            List<Query<AggregationResult>> queryList = new ArrayList<Query<AggregationResult>>(end - i);
+            try {
+                for (int j = i; j < end; j++) {
+                    Container<Object, Row> container = gridstore.getContainer(containerNames.get(j));
+                    if (container == null) {
+                        throw new GSException("Unknown container name(" + containerNames.get(j) + ")");
+                    }
+                    containerList.add(container);
+                    queryList.add(container.query("select count(*)", AggregationResult.class));
+                }
+                gridstore.fetchAll(queryList);
+                for (int j = i; j < end; j++) {
+                    RowSet<AggregationResult> rowSet = queryList.get(j - i).getRowSet();
+                    long rowCount = 0;
+                    if (rowSet.hasNext()) {
+                        rowCount = rowSet.next().getLong();
+                    }
+                    rowCountMap.put(containerNames.get(j), rowCount);
+                }
+            } finally {
+                for (Query<AggregationResult> query : queryList) {
+                    query.close();
+                }
+                for (Container<Object, Row> container : containerList) {
+                    container.close();
+                }
+            }
+        }
+    }
+
+    private List<String> createKeyRangeSplits(GridStore gridstore, GDSchemaCache schemaCache, String[] partitionHost, List<String> containerNames,
+            Map<String, Long> rowCountMap, int keyRangeRows, List<GSContainerSplit> splitList) throws GSException {
+        List<String> remainingList = new ArrayList<String>();
+
+        for (String containerName : containerNames) {
+            long rowCount = rowCountMap.get(containerName);
+            List<Long> boundaryList = null;
+            if (rowCount > keyRangeRows) {
+                boundaryList = getKeyRangeBoundaries(gridstore, schemaCache, containerName, rowCount, keyRangeRows);
+            }
+            if (boundaryList == null) {
+                remainingList.add(containerName);
+                continue;
+            }
+
+            long rangeRowCount = rowCount / (boundaryList.size() + 1);
+            Long start = null;
+            for (Long boundary : boundaryList) {
+                GSContainerSplit split = new GSContainerSplit(partitionHost, containerName, start, boundary);
+                split.setRowCount(rangeRowCount);
+                splitList.add(split);
+                start = boundary;
+            }
+            GSContainerSplit split = new GSContainerSplit(partitionHost, containerName, start, null);
+            split.setRowCount(rangeRowCount);
+            splitList.add(split);
+        }
+
+        return remainingList;
+    }
+
+    private List<Long> getKeyRangeBoundaries(GridStore gridstore, GDSchemaCache schemaCache, String containerName,
+            long rowCount, int keyRangeRows) throws GSException {
+        ContainerInfo containerInfo = schemaCache.getContainerInfo(gridstore, containerName);
+        if (containerInfo == null) {
+            throw new GSException("Unknown container name(" + containerName + ")");
+        }
+        if (! containerInfo.isRowKeyAssigned()) {
+            return null;
+        }
+        GSType keyType = containerInfo.getColumnInfo(0).getType();
+        if (keyType != GSType.INTEGER && keyType != GSType.LONG && keyType != GSType.TIMESTAMP) {
+            return null;
+        }
+
+        Container<Object, Row> container = gridstore.getContainer(containerName);
+        if (container == null) {
+            throw new GSException("Unknown container name(" + containerName + ")");
+        }
+        try {
+            String keyColumn = GDQueryUtils.quoteColumnName(containerInfo.getColumnInfo(0).getName());
+            AggregationResult min = GDQueryUtils.aggregate(container, "select min(" + keyColumn + ")");
+            AggregationResult max = GDQueryUtils.aggregate(container, "select max(" + keyColumn + ")");
+            if (min == null || max == null) {
+                return null;
+            }
+
+            long minKey;
+            long maxKey;
+            if (keyType == GSType.TIMESTAMP) {
+                minKey = min.getTimestamp().getTime();
+                maxKey = max.getTimestamp().getTime();
+            } else {
+                minKey = min.getLong();
+                maxKey = max.getLong();
+            }
+
+            long numRanges = (rowCount + keyRangeRows - 1) / keyRangeRows;
+            BigInteger span = BigInteger.valueOf(maxKey).subtract(BigInteger.valueOf(minKey)).add(BigInteger.ONE);
+            if (span.compareTo(BigInteger.valueOf(numRanges)) < 0) {
+                numRanges = span.longValue();
+            }
+
+            List<Long> boundaryList = new ArrayList<Long>();
+            for (long i = 1; i < numRanges; i++) {
+                BigInteger offset = span.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(numRanges));
+                boundaryList.add(BigInteger.valueOf(minKey).add(offset).longValue());
+            }
+            if (boundaryList.size() == 0) {
+                return null;
+            }
+            return boundaryList;
+        } finally {
+            container.close();
+        }
+    }
 
-        int[] freq = new int[list.size()];
+    private String[] getHosts(List<String> list, HashMap<String, Long> hostMap, long load) {
+        final long[] freq = new long[list.size()];
         for (int i = 0; i < list.size(); i++) {
-            Integer ii = hostMap.get(list.get(i).getCanonicalHostName());
+            Long ii = hostMap.get(list.get(i));
             if (ii == null) {
                 freq[i] = 0;
             } else {
@@ -267,7 +751,7 @@ public class GDInputFormat {
             }
         }
 
-        int minFreq = Integer.MAX_VALUE;
+        long minFreq = Long.MAX_VALUE;
         int minPos = -1;
         for (int i = 0; i < list.size(); i++) {
             if (minFreq > freq[i]) {
@@ -279,9 +763,89 @@ public class GDInputFormat {
             minPos = 0;
         }
 
-        String addr = list.get(minPos).getCanonicalHostName();
-        hostMap.put(addr, freq[minPos] + 1);
+        String addr = list.get(minPos);
+        hostMap.put(addr, freq[minPos] + load);
 
-        return addr;
+        List<Integer> order = new ArrayList<Integer>();
+        for (int i = 0; i < list.size(); i++) {
+            if (i != minPos) {
+                order.add(i);
+            }
+        }
+        Collections.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                int ret = Long.valueOf(freq[o1]).compareTo(freq[o2]);
+                if (ret == 0) {
+                    ret = o1.compareTo(o2);
+                }
+                return ret;
+            }
+        });
+
+        String[] hosts = new String[list.size()];
+        hosts[0] = addr;
+        for (int i = 0; i < order.size(); i++) {
+            hosts[i + 1] = list.get(order.get(i));
+        }
+
+        return hosts;
+    }
+
+    private class PartitionScanner {
+        private final boolean list_;
+
+        private final Pattern pattern_;
+
+        private final boolean countContainers_;
+
+        private final boolean countRows_;
+
+        private final int pageSize_;
+
+        private PartitionScanner(boolean list, Pattern pattern, int pageSize, boolean countContainers, boolean countRows) {
+            list_ = list;
+            pattern_ = pattern;
+            pageSize_ = pageSize;
+            countContainers_ = countContainers;
+            countRows_ = countRows;
+        }
+
+        private void scan(GridStore gridstore, PartitionController controller, GDPartitionInfo partitionInfo) throws GSException {
+            int index = partitionInfo.getPartitionIndex();
+            List<String> containerNameList = partitionInfo.getContainerNameList();
+            if (list_) {
+                if (pattern_ != null) {
+                    Matcher m = pattern_.matcher("");
+                    long start = 0;
+                    while (true) {
+                        List<String> page = controller.getContainerNames(index, start, (long) pageSize_);
+                        for (String containerName : page) {
+                            if (m.reset(containerName).matches()) {
+                                containerNameList.add(containerName);
+                            }
+                        }
+                        start += page.size();
+                        if (page.size() < pageSize_) {
+                            break;
+                        }
+                    }
+                    partitionInfo.setContainerCount(start);
+                    partitionInfo.trimToSize();
+                } else if (countContainers_) {
+                    partitionInfo.setContainerCount(controller.getContainerCount(index));
+                }
+                if (containerNameList.size() > 0) {
+                    for (InetAddress address : controller.getHosts(index)) {
+                        partitionInfo.getHostList().add(address.getCanonicalHostName());
+                    }
+                }
+            }
+            if (countRows_ && containerNameList.size() > 0) {
+                Map<String, Long> rowCountMap = new HashMap<String, Long>();
+                getRowCounts(gridstore, containerNameList, rowCountMap);
+                partitionInfo.setRowCountMap(rowCountMap);
+            }
+        }
     }
 }
@@ -0,0 +1,156 @@
+/*
+   Copyright (c) 2016 TOSHIBA CORPORATION.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.toshiba.mwcloud.gs.hadoop.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.Writable;
+
+/**
+ * <div lang="ja">
+ * InputSplit作成時に取得したパーティション毎の情報を保持します。
+ * </div><div lang="en">
+ * Information of each partition acquired when creating InputSplits.
+ * </div>
+ */
+class GDPartitionInfo implements Writable {
+    private int partitionIndex_;
+
+    private long containerCount_ = -1;
+
+    private ArrayList<String> containerNameList_ = new ArrayList<String>();
+
+    private List<String> hostList_ = new ArrayList<String>();
+
+    private Map<String, Long> rowCountMap_;
+
+    GDPartitionInfo() {
+    }
+
+    GDPartitionInfo(int partitionIndex) {
+        partitionIndex_ = partitionIndex;
+    }
+
+    int getPartitionIndex() {
+        return partitionIndex_;
+    }
+
+    /**
+     * <div lang="ja">
+     * 取得時のパーティション内の全コンテナ数を返します。取得していない場合は-1を返します。
+     * @return コンテナ数
+     * </div><div lang="en">
+     * Return the number of all containers in the partition when acquired, or -1 if not acquired.
+     * @return number of containers
+     * </div>
+     */
+    long getContainerCount() {
+        return containerCount_;
+    }
+
+    void setContainerCount(long containerCount) {
+        containerCount_ = containerCount;
+    }
+
+    List<String> getContainerNameList() {
+        return containerNameList_;
+    }
+
+    /**
+     * <div lang="ja">
+     * コンテナ名のリストの容量を要素数に合わせて縮小します。
+     * </div><div lang="en">
+     * Trim the capacity of the container name list to its size.
+     * </div>
+     */
+    void trimToSize() {
+        containerNameList_.trimToSize();
+    }
+
+    List<String> getHostList() {
+        return hostList_;
+    }
+
+    Map<String, Long> getRowCountMap() {
+        return rowCountMap_;
+    }
+
+    void setRowCountMap(Map<String, Long> rowCountMap) {
+        rowCountMap_ = rowCountMap;
+    }
+
+    /**
+     * <div lang="ja">
+     * {@inheritDoc}
+     * コンテナ毎のロウ数は書き込みません。
+     * @see Writable#write(DataOutput)
+     * @throws IOException DataOutputオブジェクトへの書き込み処理でエラーが発生しました
+     * </div><div lang="en">
+     * {@inheritDoc}
+     * The number of rows of each container is not written.
+     * @see Writable#write(DataOutput)
+     * @throws IOException error occurred when writing to DataOutput object
+     * </div>
+     */
+    @Override
+    public void write(final DataOutput out) throws IOException {
+        out.writeInt(partitionIndex_);
+        out.writeLong(containerCount_);
+        out.writeInt(hostList_.size());
+        for (String host : hostList_) {
+            Text.writeString(out, host);
+        }
+        out.writeInt(containerNameList_.size());
+        for (String containerName : containerNameList_) {
+            Text.writeString(out, containerName);
+        }
+    }
+
+    /**
+     * <div lang="ja">
+     * {@inheritDoc}
+     * @see Writable#readFields(DataInput)
+     * @throws IOException DataInputオブジェクトからの読み込み処理でエラーが発生しました
+     * </div><div lang="en">
+     * {@inheritDoc}
+     * @see Writable#readFields(DataInput)
+     * @throws IOException error occurred when reading from DataInput object
+     * </div>
+     */
+    @Override
+    public void readFields(final DataInput in) throws IOException {
+        partitionIndex_ = in.readInt();
+        containerCount_ = in.readLong();
+        int hostCount = in.readInt();
+        hostList_ = new ArrayList<String>(hostCount);
+        for (int i = 0; i < hostCount; i++) {
+            hostList_.add(Text.readString(in));
+        }
+        int containerNameCount = in.readInt();
+        containerNameList_ = new ArrayList<String>(containerNameCount);
+        for (int i = 0; i < containerNameCount; i++) {
+            containerNameList_.add(Text.readString(in));
+        }
+        rowCountMap_ = null;
+    }
+}
@@ -0,0 +1,271 @@
+/*
+   Copyright (c) 2016 TOSHIBA CORPORATION.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.toshiba.mwcloud.gs.hadoop.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+import com.toshiba.mwcloud.gs.GSException;
+import com.toshiba.mwcloud.gs.Row;
+
+/**
+ * <div lang="ja">
+ * バックグラウンドのスレッドでGDRecordReaderからロウデータを先読みします。<br/>
+ * 読み込み元のGDRecordReader毎にスレッドを1つ使用します。先読みしたロウデータはチャンク単位でキューに格納され、
+ * バッファ中のロウ数は指定された上限までに制限されます。<br/>
+ * ロウデータは到着順に返します。読み込み元の順序を保持する場合は、読み込み元毎に全てのロウデータを順に返します。
+ * </div><div lang="en">
+ * Prefetch row data from GDRecordReaders in background threads.<br/>
+ * One thread is used for each source GDRecordReader. Prefetched row data is passed through queues in chunks,
+ * and the number of buffered rows is limited to the specified budget.<br/>
+ * Row data is returned in order of arrival. If the order of sources is kept, all row data of each source is returned in turn.
+ * </div>
+ */
+class GDPrefetcher {
+    private final List<Worker> workerList_;
+
+    private final BlockingQueue<Chunk> queue_;
+
+    private final boolean ordered_;
+
+    private int workerIndex_ = 0;
+
+    private int activeWorkers_;
+
+    private Chunk current_ = null;
+
+    private boolean finished_ = false;
+
+    /**
+     * <div lang="ja">
+     * コンストラクタ
+     * @param sourceList ロウデータを読み込むGDRecordReaderオブジェクトのリスト。各オブジェクトはバックグラウンドのスレッドでのみ使用され、終了時にクローズされます
+     * @param bufferRows バッファするロウ数の上限。読み込み元毎に均等に割り当てられます
+     * @param ordered 読み込み元の順序を保持する場合はtrue、到着順に返す場合はfalse
+     * </div><div lang="en">
+     * Constructor
+     * @param sourceList list of GDRecordReader objects to read row data from. Each is used only by a background thread and closed when finished
+     * @param bufferRows maximum number of buffered rows, divided equally among the sources
+     * @param ordered true to keep the order of the sources, false to return row data in order of arrival
+     * </div>
+     */
+    GDPrefetcher(List<GDRecordReader> sourceList, int bufferRows, boolean ordered) {
+        ordered_ = ordered;
+        queue_ = ordered ? null : new LinkedBlockingQueue<Chunk>();
+        activeWorkers_ = sourceList.size();
+
+        int workerBufferRows = Math.max(1, bufferRows / sourceList.size());
+        workerList_ = new ArrayList<Worker>(sourceList.size());
+        for (int i = 0; i < sourceList.size(); i++) {
+            BlockingQueue<Chunk> queue = ordered ? new LinkedBlockingQueue<Chunk>() : queue_;
+            workerList_.add(new Worker(sourceList.get(i), workerBufferRows, queue, i));
+        }
+    }
+
+    /**
+     * <div lang="ja">
+     * 先読みを開始します。
+     * </div><div lang="en">
+     * Start prefetching.
+     * </div>
+     */
+    void start() {
+        for (Worker worker : workerList_) {
+            worker.thread_.start();
+        }
+    }
+
+    /**
+     * <div lang="ja">
+     * 先読みしたロウデータの次のチャンクを返します。前のチャンクが占めていたバッファは解放されます。
+     * @return 次のチャンクのGDRowSetオブジェクト、ロウデータが残っていない場合はnull
+     * @throws GSException 先読み中にGridDBで例外が発生しました
+     * </div><div lang="en">
+     * Return the next chunk of prefetched row data. The buffer occupied by the previous chunk is released.
+     * @return GDRowSet object of the next chunk, or null if no row data remains
+     * @throws GSException an exception occurred in GridDB while prefetching
+     * </div>
+     */
+    GDRowSet next() throws GSException {
+        if (current_ != null) {
+            current_.worker_.permits_.release(current_.rowCount_);
+            current_ = null;
+        }
+
+        while (! finished_) {
+            BlockingQueue<Chunk> queue = ordered_ ? workerList_.get(workerIndex_).queue_ : queue_;
+            Chunk chunk;
+            try {
+                chunk = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GSException(e);
+            }
+
+            if (chunk.rowSet_ == null) {
+                Worker worker = chunk.worker_;
+                if (worker.error_ != null) {
+                    finished_ = true;
+                    if (worker.error_ instanceof GSException) {
+                        throw (GSException) worker.error_;
+                    }
+                    throw new GSException(worker.error_);
+                }
+                activeWorkers_--;
+                if (ordered_) {
+                    workerIndex_++;
+                }
+                if (activeWorkers_ == 0) {
+                    finished_ = true;
+                }
+                continue;
+            }
+
+            chunk.worker_.pos_ = chunk.pos_;
+            current_ = chunk;
+            return chunk.rowSet_;
+        }
+        return null;
+    }
+
+    /**
+     * <div lang="ja">
+     * 返したチャンクまでに処理されたコンテナ数の合計を返します。
+     * @return 処理済みのコンテナ数
+     * </div><div lang="en">
+     * Return the total number of containers processed up to the returned chunks.
+     * @return number of containers processed
+     * </div>
+     */
+    long getPos() {
+        long pos = 0;
+        for (Worker worker : workerList_) {
+            pos += worker.pos_;
+        }
+        return pos;
+    }
+
+    /**
+     * <div lang="ja">
+     * 先読みを停止し、バックグラウンドのスレッドの終了を待ちます。
+     * </div><div lang="en">
+     * Stop prefetching and wait for the background threads to finish.
+     * </div>
+     */
+    void close() {
+        for (Worker worker : workerList_) {
+            worker.closed_ = true;
+            worker.thread_.interrupt();
+        }
+        for (Worker worker : workerList_) {
+            try {
+                worker.thread_.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker.queue_.clear();
+        }
+        current_ = null;
+        finished_ = true;
+    }
+
+    private static class Worker implements Runnable {
+        private final GDRecordReader source_;
+
+        private final int chunkSize_;
+
+        private final Semaphore permits_;
+
+        private final BlockingQueue<Chunk> queue_;
+
+        private final Thread thread_;
+
+        private volatile boolean closed_ = false;
+
+        private volatile Throwable error_ = null;
+
+        private long pos_ = 0;
+
+        private Worker(GDRecordReader source, int bufferRows, BlockingQueue<Chunk> queue, int index) {
+            source_ = source;
+            chunkSize_ = Math.max(1, bufferRows / 4);
+            permits_ = new Semaphore(Math.max(bufferRows, chunkSize_));
+            queue_ = queue;
+            thread_ = new Thread(this, "GDPrefetcher-" + index);
+            thread_.setDaemon(true);
+        }
+
+        /*
+         * (non-Javadoc)
+         * @see java.lang.Runnable#run()
+         */
+        @Override
+        public void run() {
+            try {
+                List<Row> rowList = new ArrayList<Row>(chunkSize_);
+                while (! closed_ && source_.hasNext()) {
+                    rowList.add(source_.getRowSet().nextRow());
+                    if (rowList.size() >= chunkSize_) {
+                        put(rowList);
+                        rowList = new ArrayList<Row>(chunkSize_);
+                    }
+                }
+                if (rowList.size() > 0) {
+                    put(rowList);
+                }
+            } catch (InterruptedException e) {
+                // closed while waiting for the consumer
+            } catch (Throwable e) {
+                error_ = e;
+            } finally {
+                try {
+                    source_.close();
+                } catch (Throwable e) {
+                    if (error_ == null) {
+                        error_ = e;
+                    }
+                }
+                queue_.add(new Chunk(this, null, 0, 0));
+            }
+        }
+
+        private void put(List<Row> rowList) throws InterruptedException {
+            permits_.acquire(rowList.size());
+            queue_.add(new Chunk(this, new GDRowSet(rowList), rowList.size(), source_.getPos()));
+        }
+    }
+
+    private static class Chunk {
+        private final Worker worker_;
+
+        private final GDRowSet rowSet_;
+
+        private final int rowCount_;
+
+        private final long pos_;
+
+        private Chunk(Worker worker, GDRowSet rowSet, int rowCount, long pos) {
+            worker_ = worker;
+            rowSet_ = rowSet;
+            rowCount_ = rowCount;
+            pos_ = pos;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+/*
+   Copyright (c) 2016 TOSHIBA CORPORATION.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.toshiba.mwcloud.gs.hadoop.util;
+
+import java.util.Date;
+import java.util.regex.Pattern;
+
+import com.toshiba.mwcloud.gs.AggregationResult;
+import com.toshiba.mwcloud.gs.Container;
+import com.toshiba.mwcloud.gs.GSException;
+import com.toshiba.mwcloud.gs.GSType;
+import com.toshiba.mwcloud.gs.Query;
+import com.toshiba.mwcloud.gs.Row;
+import com.toshiba.mwcloud.gs.RowSet;
+
+/**
+ * <div lang="ja">
+ * GridDBコネクタで用いるTQL文の組み立てに関するユーティリティです。
+ * </div><div lang="en">
+ * Utilities of TQL statements used in the GridDB connector.
+ * </div>
+ */
+public class GDQueryUtils {
+    private static final Pattern QUOTED_PATTERN = Pattern.compile("'(?:[^']|'')*'|\"(?:[^\"]|\"\")*\"");
+    private static final Pattern ORDER_BY_PATTERN = Pattern.compile("(?i)\\bORDER\\s+BY\\b");
+    private static final Pattern LIMIT_PATTERN = Pattern.compile("(?i)\\b(?:LIMIT|OFFSET)\\b");
+
+    private GDQueryUtils() {
+    }
+
+    /**
+     * <div lang="ja">
+     * カラム名をTQL文で使用できるように引用符で囲みます。
+     * @param columnName カラム名
+     * @return 引用符で囲んだカラム名
+     * </div><div lang="en">
+     * Quote the column name to be used in TQL statements.
+     * @param columnName column name
+     * @return quoted column name
+     * </div>
+     */
+    public static String quoteColumnName(String columnName) {
+        return "\"" + columnName.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * <div lang="ja">
+     * ロウキーの値をTQL文のリテラルに変換します。
+     * @param keyType ロウキーの型(INTEGER/LONG/TIMESTAMP)
+     * @param value ロウキーの値(TIMESTAMP型はミリ秒単位の時刻)
+     * @return TQL文のリテラル
+     * </div><div lang="en">
+     * Convert the row key value to a TQL literal.
+     * @param keyType data type of row key (INTEGER/LONG/TIMESTAMP)
+     * @param value value of row key (milliseconds for TIMESTAMP keys)
+     * @return TQL literal
+     * </div>
+     */
+    public static String toKeyLiteral(GSType keyType, long value) {
+        if (keyType == GSType.TIMESTAMP) {
+            return "TO_TIMESTAMP_MS(" + value + ")";
+        }
+        return Long.toString(value);
+    }
+
+    /**
+     * <div lang="ja">
+     * ロウキーの値をTQL文のリテラルに変換します。
+     * @param keyType ロウキーの型(STRING/INTEGER/LONG/TIMESTAMP)
+     * @param value ロウキーの値
+     * @return TQL文のリテラル
+     * </div><div lang="en">
+     * Convert the row key value to a TQL literal.
+     * @param keyType data type of row key (STRING/INTEGER/LONG/TIMESTAMP)
+     * @param value value of row key
+     * @return TQL literal
+     * </div>
+     */
+    public static String toKeyLiteral(GSType keyType, Object value) {
+        switch (keyType) {
+        case STRING:
+            return "'" + value.toString().replace("'", "''") + "'";
+        case TIMESTAMP:
+            return toKeyLiteral(keyType, ((Date) value).getTime());
+        default:
+            return value.toString();
+        }
+    }
+
+    /**
+     * <div lang="ja">
+     * ロウキーの値を起点にしてページ単位でロウを取得するTQL文を返します。<br/>
+     * ロウはロウキーの昇順に、指定した値より大きいロウキーのロウから取得します。
+     * @param cond TQLの条件式、またはnull
+     * @param keyColumnName ロウキーのカラム名
+     * @param keyType ロウキーの型(STRING/INTEGER/LONG/TIMESTAMP)
+     * @param lastKey 前のページの最後のロウキーの値、最初のページの場合はnull
+     * @param limit TQLのLIMIT句の値
+     * @return TQL文
+     * </div><div lang="en">
+     * Return a TQL statement to acquire rows of a page starting from a row key value.<br/>
+     * Rows are acquired in ascending order of row key, starting from the row whose row key is greater than the specified value.
+     * @param cond TQL conditional expression or null
+     * @param keyColumnName column name of row key
+     * @param keyType data type of row key (STRING/INTEGER/LONG/TIMESTAMP)
+     * @param lastKey last row key value of the previous page or null for the first page
+     * @param limit value for TQL LIMIT clause
+     * @return TQL statement
+     * </div>
+     */
+    public static String createKeysetTql(String cond, String keyColumnName, GSType keyType, Object lastKey, int limit) {
+        String column = quoteColumnName(keyColumnName);
+        if (lastKey != null) {
+            cond = and(cond, column + " > " + toKeyLiteral(keyType, lastKey));
+        }
+        String tql = "select *";
+        if (cond != null) {
+            tql += " where " + cond;
+        }
+        return tql + " order by " + column + " limit " + limit;
+    }
+
+    /**
+     * <div lang="ja">
+     * TQLの条件式がORDER BY句を含むかを判定します。引用符で囲まれた部分は対象外です。
+     * @param cond TQLの条件式、またはnull
+     * @return 含む場合はtrue、そうでなければfalse
+     * </div><div lang="en">
+     * Determine whether the TQL conditional expression contains an ORDER BY clause. Quoted parts are ignored.
+     * @param cond TQL conditional expression or null
+     * @return true if contained and false otherwise
+     * </div>
+     */
+    public static boolean hasOrderByClause(String cond) {
+        return containsClause(cond, ORDER_BY_PATTERN);
+    }
+
+    /**
+     * <div lang="ja">
+     * TQLの条件式がLIMITまたはOFFSET句を含むかを判定します。引用符で囲まれた部分は対象外です。
+     * @param cond TQLの条件式、またはnull
+     * @return 含む場合はtrue、そうでなければfalse
+     * </div><div lang="en">
+     * Determine whether the TQL conditional expression contains a LIMIT or OFFSET clause. Quoted parts are ignored.
+     * @param cond TQL conditional expression or null
+     * @return true if contained and false otherwise
+     * </div>
+     */
+    public static boolean hasLimitClause(String cond) {
+        return containsClause(cond, LIMIT_PATTERN);
+    }
+
+    private static boolean containsClause(String cond, Pattern pattern) {
+        if (cond == null) {
+            return false;
+        }
+        return pattern.matcher(QUOTED_PATTERN.matcher(cond).replaceAll(" ")).find();
+    }
+
+    /**
+     * <div lang="ja">
+     * ロウキーの値を起点にしたページ単位の取得が可能なロウキーの型かを判定します。
+     * @param keyType ロウキーの型、ロウキーがない場合はnull
+     * @return 可能であればtrue、そうでなければfalse
+     * </div><div lang="en">
+     * Determine whether rows can be acquired in pages starting from a row key value with the data type of row key.
+     * @param keyType data type of row key or null if there is no row key
+     * @return true if possible and false otherwise
+     * </div>
+     */
+    public static boolean isKeysetSupported(GSType keyType) {
+        if (keyType == null) {
+            return false;
+        }
+        switch (keyType) {
+        case STRING:
+        case INTEGER:
+        case LONG:
+        case TIMESTAMP:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * <div lang="ja">
+     * ロウキーの範囲を表すTQLの条件式を返します。範囲は開始値を含み、終了値を含みません。
+     * @param keyColumnName ロウキーのカラム名
+     * @param keyType ロウキーの型(INTEGER/LONG/TIMESTAMP)
+     * @param start 範囲の開始値、制限しない場合はnull
+     * @param end 範囲の終了値、制限しない場合はnull
+     * @return TQLの条件式、範囲を制限しない場合はnull
+     * </div><div lang="en">
+     * Return the TQL conditional expression of the row key range. The range includes the start value and excludes the end value.
+     * @param keyColumnName column name of row key
+     * @param keyType data type of row key (INTEGER/LONG/TIMESTAMP)
+     * @param start start of the range or null if the start is open
+     * @param end end of the range or null if the end is open
+     * @return TQL conditional expression or null if the range is not limited
+     * </div>
+     */
+    public static String createKeyRangeCondition(String keyColumnName, GSType keyType, Long start, Long end) {
+        String column = quoteColumnName(keyColumnName);
+        String cond = null;
+        if (start != null) {
+            cond = column + " >= " + toKeyLiteral(keyType, start);
+        }
+        if (end != null) {
+            String endCond = column + " < " + toKeyLiteral(keyType, end);
+            cond = (cond == null) ? endCond : cond + " and " + endCond;
+        }
+        return cond;
+    }
+
+    /**
+     * <div lang="ja">
+     * 2つのTQLの条件式をandで結合します。
+     * @param cond1 条件式、またはnull
+     * @param cond2 条件式、またはnull
+     * @return 結合した条件式、どちらもnullの場合はnull
+     * </div><div lang="en">
+     * Combine two TQL conditional expressions with "and".
+     * @param cond1 conditional expression or null
+     * @param cond2 conditional expression or null
+     * @return combined conditional expression or null if both are null
+     * </div>
+     */
+    public static String and(String cond1, String cond2) {
+        if (cond1 == null) {
+            return cond2;
+        }
+        if (cond2 == null) {
+            return cond1;
+        }
+        return "(" + cond1 + ") and (" + cond2 + ")";
+    }
+
+    /**
+     * <div lang="ja">
+     * 集計演算のTQL文を実行して結果を返します。
+     * @param container Containerオブジェクト
+     * @param tql 集計演算のTQL文
+     * @return 集計結果、結果がない場合はnull
+     * @throws GSException GridDBで例外が発生しました
+     * </div><div lang="en">
+     * Execute a TQL statement of an aggregation operation and return the result.
+     * @param container Container object
+     * @param tql TQL statement of aggregation operation
+     * @return aggregation result or null if there is no result
+     * @throws GSException an exception occurred in GridDB
+     * </div>
+     */
+    public static AggregationResult aggregate(Container<Object, Row> container, String tql) throws GSException {
+        Query<AggregationResult> query = container.query(tql, AggregationResult.class);
+        try {
+            RowSet<AggregationResult> rowSet = query.fetch(false);
+            if (! rowSet.hasNext()) {
+                return null;
+            }
+            return rowSet.next();
+        } finally {
+            query.close();
+        }
+    }
+}
@@ -21,16 +21,21 @@ import static com.toshiba.mwcloud.gs.hadoop.conf.GDProperty.*;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.hadoop.conf.Configuration;
 
 import com.toshiba.mwcloud.gs.hadoop.conf.GDPropertyUtils;
 import com.toshiba.mwcloud.gs.hadoop.mapred.GSContainerSplit;
 
+import com.toshiba.mwcloud.gs.AggregationResult;
 import com.toshiba.mwcloud.gs.ColumnInfo;
 import com.toshiba.mwcloud.gs.Container;
 import com.toshiba.mwcloud.gs.ContainerInfo;
@@ -53,16 +58,28 @@ import com.toshiba.mwcloud.gs.RowSet;
  * </div>
  */
 public class GDRecordReader {
+    private static final int DEFAULT_PREFETCH_ROWS = 1000;
+
+    private static final Pattern AGGREGATION_PATTERN =
+            Pattern.compile("(?i)\\s*(COUNT|SUM|MIN|MAX|AVG|VARIANCE|STDDEV)\\s*\\(\\s*(\\*|\"(?:[^\"]|\"\")+\"|[^\\s()\"]+)\\s*\\)\\s*");
+
     private Configuration conf_;
 
     private GridStore gridstore_;
     private PartitionController controller_;
 
+    private GSContainerSplit split_;
     private String[] partitionHost_;
-    private String[][] containerNameList_;
+    private String localHost_;
+    private Iterator<String> containerNames_;
 
     private String tqlWhere_;
 
+    private boolean keyRangeAssigned_;
+    private Long keyRangeStart_;
+    private Long keyRangeEnd_;
+    private String keyRangeCond_;
+
     private int partitionIndex_;
     private int containerIndex_;
 
@@ -71,12 +88,21 @@ public class GDRecordReader {
 
     private int multiGetSize_;
     private int fetchSize_;
+    private String keyColumnName_;
+    private ContainerInfo schema_;
+    private int[] columnIndexes_;
+    private ContainerInfo aggregationSchema_;
+    private List<String> aggregationList_;
+    private GDSchemaCache schemaCache_;
 
     private List<Container<Object, Row>> containerList_;
     private List<Query<Row>> queryList_;
     private List<GDRowSet> rowsetList_;
     private int rowsetIndex_;
 
+    private GDPrefetcher prefetcher_;
+    private GDRowSet prefetchRowSet_;
+
     protected ContainerType containerType_;
 
     protected boolean keyCheckFlag_ = false;
@@ -96,17 +122,76 @@ public class GDRecordReader {
      * </div>
      */
     public GDRecordReader(GSContainerSplit split, Configuration conf) throws GSException {
+        this(split, conf, true);
+    }
+
+    private GDRecordReader(GSContainerSplit split, Configuration conf, boolean background) throws GSException {
         conf_ = conf;
 
+        int prefetchRows = GDPropertyUtils.getInteger(conf, GS_INPUT_PREFETCH_ROWS);
+        int fetchThreads = GDPropertyUtils.getInteger(conf, GS_INPUT_FETCH_THREADS);
+        if (background && (prefetchRows > 0 || fetchThreads > 1)) {
+            List<GSContainerSplit> sourceSplitList = divideSplit(split, fetchThreads);
+            if (prefetchRows == 0) {
+                prefetchRows = DEFAULT_PREFETCH_ROWS * sourceSplitList.size();
+            }
+
+            List<GDRecordReader> sourceList = new ArrayList<GDRecordReader>(sourceSplitList.size());
+            try {
+                GDRecordReader schemaSource = null;
+                for (GSContainerSplit sourceSplit : sourceSplitList) {
+                    GDRecordReader source = new GDRecordReader(sourceSplit, conf, false);
+                    sourceList.add(source);
+                    containerCount_ += source.containerCount_;
+                    if (schemaSource == null && source.checkSchema()) {
+                        schemaSource = source;
+                        keyCheckFlag_ = true;
+                        keyType_ = source.keyType_;
+                        columnIndexes_ = source.columnIndexes_;
+                        containerType_ = source.containerType_;
+                    }
+                }
+                if (schemaSource != null) {
+                    for (GDRecordReader source : sourceList) {
+                        if (source != schemaSource) {
+                            source.copySchema(schemaSource);
+                        }
+                    }
+                }
+            } catch (GSException e) {
+                for (GDRecordReader source : sourceList) {
+                    source.close();
+                }
+                throw e;
+            }
+            keyCheckFlag_ = true;
+            containerPos_ = 0;
+
+            prefetcher_ = new GDPrefetcher(sourceList, prefetchRows, Boolean.parseBoolean(GS_INPUT_FETCH_ORDERED.get(conf)));
+            prefetcher_.start();
+            return;
+        }
+
         Properties prop = GDPropertyUtils.getGSProp(conf, GDPropertyUtils.getGSPropertiesToRead());
         gridstore_ = GridStoreFactory.getInstance().getGridStore(prop);
         controller_ = gridstore_.getPartitionController();
 
-        partitionHost_ = split.getLocations();
-        containerNameList_ = split.getContainerNameList();
+        split_ = split;
+        schema_ = split.getSchema();
+        schemaCache_ = new GDSchemaCache(conf);
+        partitionHost_ = new String[split.getContainerInfoLength()];
+        for (int i = 0; i < partitionHost_.length; i++) {
+            partitionHost_[i] = selectHost(split.getPartitionHosts(i));
+        }
+        containerNames_ = null;
 
         tqlWhere_ = GS_INPUT_TQL_WHERE.get(conf);
 
+        keyRangeAssigned_ = split.isKeyRangeAssigned();
+        keyRangeStart_ = split.getKeyRangeStart();
+        keyRangeEnd_ = split.getKeyRangeEnd();
+        keyRangeCond_ = null;
+
         multiGetSize_ = GDPropertyUtils.getInteger(conf, GS_INPUT_FETCH_CONTAINERS);
 
         fetchSize_ = GDPropertyUtils.getInteger(conf, GS_INPUT_FETCH_SIZE);
@@ -116,8 +201,8 @@ public class GDRecordReader {
 
         containerCount_ = 0;
         containerPos_ = 0;
-        for (int i = 0; i < containerNameList_.length; i++) {
-            containerCount_ += containerNameList_[i].length;
+        for (int i = 0; i < partitionHost_.length; i++) {
+            containerCount_ += split.getContainerNameCount(i);
         }
 
         containerList_ = null;
@@ -125,7 +210,10 @@ public class GDRecordReader {
         rowsetList_ = null;
         rowsetIndex_ = 0;
 
-        proceed();
+        // The readers for the prefetch threads leave the first fetch to hasNext() on the worker thread
+        if (background) {
+            proceed();
+        }
     }
 
     /**
@@ -141,6 +229,19 @@ public class GDRecordReader {
         return keyType_;
     }
 
+    /**
+     * <div lang="ja">
+     * プロパティgs.input.columnsで指定された入力対象のカラムの番号を返します。
+     * @return カラム番号の配列、全カラムを入力する場合はnull
+     * </div><div lang="en">
+     * Return the column numbers for input processing specified by the property gs.input.columns.
+     * @return array of column numbers or null if all columns are read
+     * </div>
+     */
+    public int[] getColumnIndexes() {
+        return columnIndexes_;
+    }
+
     /**
      * <div lang="ja">
      * 処理済みのコンテナ数を返します。
@@ -185,6 +286,11 @@ public class GDRecordReader {
      * </div>
      */
     public void close() throws GSException {
+        if (prefetcher_ != null) {
+            prefetcher_.close();
+            prefetcher_ = null;
+            prefetchRowSet_ = null;
+        }
         closeRowSet();
         if (gridstore_ != null) {
             gridstore_.close();
@@ -206,6 +312,9 @@ public class GDRecordReader {
         if (! hasNext()) {
             return null;
         }
+        if (prefetcher_ != null) {
+            return prefetchRowSet_;
+        }
         GDRowSet rowset = rowsetList_.get(rowsetIndex_);
         return rowset;
     }
@@ -222,6 +331,18 @@ public class GDRecordReader {
      * </div>
      */
     public boolean hasNext() throws GSException {
+        if (prefetcher_ != null) {
+            while (prefetchRowSet_ == null || ! prefetchRowSet_.hasNext()) {
+                prefetchRowSet_ = prefetcher_.next();
+                if (prefetchRowSet_ == null) {
+                    containerPos_ = containerCount_;
+                    return false;
+                }
+                containerPos_ = (int) prefetcher_.getPos();
+            }
+            return true;
+        }
+
         if (rowsetList_ == null) {
             if (! proceed()) {
                 return false;
@@ -288,33 +409,41 @@ public class GDRecordReader {
     private boolean proceed() throws GSException {
         closeRowSet();
 
-        if (partitionIndex_ >= containerNameList_.length) {
+        if (partitionIndex_ >= partitionHost_.length) {
             return false;
         }
 
-        while (containerIndex_ >= containerNameList_[partitionIndex_].length) {
+        while (containerIndex_ >= split_.getContainerNameCount(partitionIndex_)) {
             partitionIndex_ += 1;
 
             containerIndex_ = 0;
 
-            if (partitionIndex_ >= containerNameList_.length) {
+            if (partitionIndex_ >= partitionHost_.length) {
                 return false;
             }
         }
 
         int numContainers = multiGetSize_;
         if (numContainers == 0) {
-            numContainers = containerNameList_[partitionIndex_].length - containerIndex_;
-        } else if (numContainers > containerNameList_[partitionIndex_].length - containerIndex_) {
-            numContainers = containerNameList_[partitionIndex_].length - containerIndex_;
+            numContainers = split_.getContainerNameCount(partitionIndex_) - containerIndex_;
+        } else if (numContainers > split_.getContainerNameCount(partitionIndex_) - containerIndex_) {
+            numContainers = split_.getContainerNameCount(partitionIndex_) - containerIndex_;
+        }
+
+        if (containerIndex_ == 0) {
+            containerNames_ = split_.getContainerNames(partitionIndex_);
+        }
+        String[] containerNameList = new String[numContainers];
+        for (int i = 0; i < numContainers; i++) {
+            containerNameList[i] = containerNames_.next();
         }
 
-        createRowSetList(gridstore_, containerNameList_[partitionIndex_], containerIndex_, tqlWhere_, numContainers);
+        createRowSetList(gridstore_, containerNameList, 0, tqlWhere_, numContainers);
 
         containerIndex_ += numContainers;
         containerPos_ += numContainers;
 
-        if (containerIndex_ >= containerNameList_[partitionIndex_].length) {
+        if (containerIndex_ >= split_.getContainerNameCount(partitionIndex_)) {
             partitionIndex_ += 1;
             containerPos_ += 1;
 
@@ -324,11 +453,90 @@ public class GDRecordReader {
         return true;
     }
 
+    private boolean checkSchema() throws GSException {
+        for (int i = 0; i < partitionHost_.length; i++) {
+            if (split_.getContainerNameCount(i) > 0) {
+                checkSchema(gridstore_, split_.getContainerNames(i).next());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void copySchema(GDRecordReader source) {
+        keyCheckFlag_ = source.keyCheckFlag_;
+        keyType_ = source.keyType_;
+        keyColumnName_ = source.keyColumnName_;
+        keyRangeCond_ = source.keyRangeCond_;
+        columnIndexes_ = source.columnIndexes_;
+        aggregationSchema_ = source.aggregationSchema_;
+        aggregationList_ = source.aggregationList_;
+        containerType_ = source.containerType_;
+    }
+
+    private void checkSchema(GridStore gridstore, String containerName) throws GSException {
+        keyCheckFlag_ = true;
+        ContainerInfo containerInfo;
+        if (schema_ == null) {
+            containerInfo = schemaCache_.getContainerInfo(gridstore, containerName);
+        } else {
+            // The schema carried by the split is checked once, in case the container was recreated after planning
+            containerInfo = gridstore.getContainerInfo(containerName);
+        }
+        if (containerInfo == null) {
+            schemaCache_.remove(containerName);
+            throw new GSException("Unknown container name(" + containerName + ")");
+        }
+        if (containerInfo.isRowKeyAssigned()) {
+            ColumnInfo columnInfo = containerInfo.getColumnInfo(0);
+            keyType_ = columnInfo.getType();
+            keyColumnName_ = columnInfo.getName();
+        }
+
+        if (GS_INPUT_SPLIT_TIME_WINDOW.get(conf_) != null && keyType_ != GSType.TIMESTAMP) {
+            throw new GSException("'" + GS_INPUT_SPLIT_TIME_WINDOW.getKey() + "' requires a TIMESTAMP row key(" + containerName + ")");
+        }
+        if (keyRangeAssigned_ && keyType_ != null) {
+            keyRangeCond_ = GDQueryUtils.createKeyRangeCondition(containerInfo.getColumnInfo(0).getName(),
+                    keyType_, keyRangeStart_, keyRangeEnd_);
+        }
+
+        List<String> aggregationList = GDPropertyUtils.getPropertyList(conf_, GS_INPUT_AGGREGATION);
+        if (! aggregationList.isEmpty()) {
+            containerInfo = createAggregationSchema(containerInfo, aggregationList, containerName);
+            keyType_ = GSType.STRING;
+            keyColumnName_ = null;
+        }
+
+        columnIndexes_ = getColumnIndexes(containerInfo, containerName);
+
+        List<String> columnTypeList = new ArrayList<String>();
+        List<String> columnNameList = new ArrayList<String>();
+        int columnCount = (columnIndexes_ == null) ? containerInfo.getColumnCount() : columnIndexes_.length;
+        for (int i = 0; i < columnCount; i++) {
+            ColumnInfo columnInfo = containerInfo.getColumnInfo(columnIndexes_ == null ? i : columnIndexes_[i]);
+            columnTypeList.add(columnInfo.getType().toString());
+            columnNameList.add(columnInfo.getName());
+        }
+        StringBuffer columnTypeBuffer = new StringBuffer(columnTypeList.get(0));
+        for (int i = 1; i < columnTypeList.size(); i++) {
+            columnTypeBuffer.append("," + columnTypeList.get(i));
+        }
+        StringBuffer columnNameBuffer = new StringBuffer(columnNameList.get(0));
+        for (int i = 1; i < columnNameList.size(); i++) {
+            columnNameBuffer.append("," + columnNameList.get(i));
+        }
+        conf_.set(GS_INPUT_ROW_KEY_ASSIGNED.getKey(), Boolean.valueOf(containerInfo.isRowKeyAssigned()).toString());
+        conf_.set(GS_INPUT_COLUMN_TYPE_LIST.getKey(), columnTypeBuffer.toString());
+        conf_.set(GS_INPUT_COLUMN_NAME_LIST.getKey(), columnNameBuffer.toString());
+    }
+
     private void createRowSetList(GridStore gridstore, String[] containerNameList, int n,
             String cond, int numContainers) throws GSException {
         if (containerIndex_ == 0) {
             try {
-                controller_.assignPreferableHost(partitionIndex_, InetAddress.getByName(partitionHost_[partitionIndex_]));
+                int partitionNo = controller_.getPartitionIndexOfContainer(containerNameList[n]);
+                controller_.assignPreferableHost(partitionNo, InetAddress.getByName(partitionHost_[partitionIndex_]));
             } catch (UnknownHostException e) {
                 throw new GSException(e);
             }
@@ -338,41 +546,21 @@ public class GDRecordReader {
         queryList_ = new ArrayList<Query<Row>>(numContainers);
         rowsetList_ = new ArrayList<GDRowSet>(numContainers);
 
-        ContainerInfo containerInfo = gridstore.getContainerInfo(containerNameList[n]);
-        if (containerInfo == null) {
-            throw new GSException("Unknown container name(" + containerNameList[n] + ")");
-        }
-        for (int i = 1; i < numContainers; i++) {
-            if (gridstore.getContainerInfo(containerNameList[n + i]) == null) {
-                throw new GSException("Unknown container name(" + containerNameList[n + i] + ")");
+        if (schema_ == null) {
+            for (int i = 0; i < numContainers; i++) {
+                if (schemaCache_.getContainerInfo(gridstore, containerNameList[n + i]) == null) {
+                    throw new GSException("Unknown container name(" + containerNameList[n + i] + ")");
+                }
             }
         }
 
         if (! keyCheckFlag_) {
-            keyCheckFlag_ = true;
-            if (containerInfo.isRowKeyAssigned()) {
-                ColumnInfo columnInfo = containerInfo.getColumnInfo(0);
-                keyType_ = columnInfo.getType();
-            }
+            checkSchema(gridstore, containerNameList[n]);
+        }
 
-            List<String> columnTypeList = new ArrayList<String>();
-            List<String> columnNameList = new ArrayList<String>();
-            for (int i = 0; i < containerInfo.getColumnCount(); i++) {
-                ColumnInfo columnInfo = containerInfo.getColumnInfo(i);
-                columnTypeList.add(columnInfo.getType().toString());
-                columnNameList.add(columnInfo.getName());
-            }
-            StringBuffer columnTypeBuffer = new StringBuffer(columnTypeList.get(0));
-            for (int i = 1; i < columnTypeList.size(); i++) {
-                columnTypeBuffer.append("," + columnTypeList.get(i));
-            }
-            StringBuffer columnNameBuffer = new StringBuffer(columnNameList.get(0));
-            for (int i = 1; i < columnNameList.size(); i++) {
-                columnNameBuffer.append("," + columnNameList.get(i));
-            }
-            conf_.set(GS_INPUT_ROW_KEY_ASSIGNED.getKey(), Boolean.valueOf(containerInfo.isRowKeyAssigned()).toString());
-            conf_.set(GS_INPUT_COLUMN_TYPE_LIST.getKey(), columnTypeBuffer.toString());
-            conf_.set(GS_INPUT_COLUMN_NAME_LIST.getKey(), columnNameBuffer.toString());
+        if (aggregationSchema_ != null) {
+            execAggregation(gridstore, containerNameList, n, GDQueryUtils.and(normalizeCond(cond), keyRangeCond_), numContainers);
+            return;
         }
 
         boolean isMultiGet = false;
@@ -405,6 +593,7 @@ public class GDRecordReader {
             case INTEGER:
                 Map<String, RowKeyPredicate<Object>> containerPredicateMapInteger = new HashMap<String, RowKeyPredicate<Object>>();
                 RowKeyPredicate<Object> rowKeyPredicateInteger = RowKeyPredicate.create(GSType.INTEGER);
+                setKeyRange(rowKeyPredicateInteger);
                 for (int i = 0; i < numContainers; i++) {
                     containerPredicateMapInteger.put(containerNameList[n + i], rowKeyPredicateInteger);
                 }
@@ -413,6 +602,7 @@ public class GDRecordReader {
             case LONG:
                 Map<String, RowKeyPredicate<Object>> containerPredicateMapLong = new HashMap<String, RowKeyPredicate<Object>>();
                 RowKeyPredicate<Object> rowKeyPredicateLong = RowKeyPredicate.create(GSType.LONG);
+                setKeyRange(rowKeyPredicateLong);
                 for (int i = 0; i < numContainers; i++) {
                     containerPredicateMapLong.put(containerNameList[n + i], rowKeyPredicateLong);
                 }
@@ -421,6 +611,7 @@ public class GDRecordReader {
             case TIMESTAMP:
                 Map<String, RowKeyPredicate<Object>> containerPredicateMapDate = new HashMap<String, RowKeyPredicate<Object>>();
                 RowKeyPredicate<Object> rowKeyPredicateDate = RowKeyPredicate.create(GSType.TIMESTAMP);
+                setKeyRange(rowKeyPredicateDate);
                 for (int i = 0; i < numContainers; i++) {
                     containerPredicateMapDate.put(containerNameList[n + i], rowKeyPredicateDate);
                 }
@@ -431,12 +622,255 @@ public class GDRecordReader {
             }
             for (int i = 0; i < numContainers; i++) {
                 List<Row> rowList = resultMap.get(containerNameList[n + i]);
+                if (rowList == null) {
+                    // The existence of containers is not checked in advance if the split carries the schema
+                    schemaCache_.remove(containerNameList[n + i]);
+                    throw new GSException("Unknown container name(" + containerNameList[n + i] + ")");
+                }
                 containerList_.add(null);
                 queryList_.add(null);
                 rowsetList_.add(new GDRowSet(rowList));
             }
         } else {
-            execQuery(gridstore, containerNameList, n, cond, numContainers);
+            execQuery(gridstore, containerNameList, n, GDQueryUtils.and(cond, keyRangeCond_), numContainers);
+        }
+    }
+
+    private ContainerInfo createAggregationSchema(ContainerInfo containerInfo, List<String> aggregationList,
+            String containerName) throws GSException {
+        List<ColumnInfo> columnInfoList = new ArrayList<ColumnInfo>();
+        columnInfoList.add(new ColumnInfo("container", GSType.STRING));
+        if (GS_INPUT_SPLIT_TIME_WINDOW.get(conf_) != null) {
+            columnInfoList.add(new ColumnInfo("window_start", GSType.TIMESTAMP));
+        }
+
+        aggregationList_ = new ArrayList<String>();
+        for (String aggregation : aggregationList) {
+            Matcher matcher = AGGREGATION_PATTERN.matcher(aggregation);
+            if (! matcher.matches()) {
+                throw new GSException("Illegal aggregation(" + aggregation + ")");
+            }
+            String function = matcher.group(1).toUpperCase();
+            String column = matcher.group(2);
+            GSType type;
+            String name;
+            if (column.equals("*")) {
+                if (! function.equals("COUNT")) {
+                    throw new GSException("Illegal aggregation(" + aggregation + ")");
+                }
+                type = GSType.LONG;
+                name = "count";
+            } else {
+                if (column.startsWith("\"")) {
+                    column = column.substring(1, column.length() - 1).replace("\"\"", "\"");
+                }
+                ColumnInfo columnInfo = null;
+                for (int i = 0; i < containerInfo.getColumnCount(); i++) {
+                    if (containerInfo.getColumnInfo(i).getName().equalsIgnoreCase(column)) {
+                        columnInfo = containerInfo.getColumnInfo(i);
+                        break;
+                    }
+                }
+                if (columnInfo == null) {
+                    throw new GSException("Unknown column name(" + column + ") in container(" + containerName + ")");
+                }
+                type = getAggregationType(function, columnInfo.getType());
+                name = function.toLowerCase() + "_" + columnInfo.getName();
+                column = GDQueryUtils.quoteColumnName(columnInfo.getName());
+            }
+            aggregationList_.add(function + "(" + column + ")");
+            columnInfoList.add(new ColumnInfo(name, type));
+        }
+
+        aggregationSchema_ = new ContainerInfo(null, ContainerType.COLLECTION, columnInfoList, true);
+        return aggregationSchema_;
+    }
+
+    private GSType getAggregationType(String function, GSType columnType) {
+        if (function.equals("COUNT")) {
+            return GSType.LONG;
+        }
+        if (function.equals("AVG") || function.equals("VARIANCE") || function.equals("STDDEV")) {
+            return GSType.DOUBLE;
+        }
+        switch (columnType) {
+        case FLOAT:
+        case DOUBLE:
+            return GSType.DOUBLE;
+        case TIMESTAMP:
+            if (! function.equals("SUM")) {
+                return GSType.TIMESTAMP;
+            }
+            return GSType.LONG;
+        default:
+            return GSType.LONG;
+        }
+    }
+
+    private void execAggregation(GridStore gridstore, String[] containerNameList, int n,
+            String cond, int numContainers) throws GSException {
+        String where = (cond == null) ? "" : " where " + cond;
+        int numAggregations = aggregationList_.size();
+        List<Container<Object, Row>> containerList = new ArrayList<Container<Object, Row>>(numContainers);
+        List<Query<AggregationResult>> queryList = new ArrayList<Query<AggregationResult>>(numContainers * numAggregations);
+        try {
+            // Aggregation queries of all containers are executed at once
+            for (int i = 0; i < numContainers; i++) {
+                Container<Object, Row> container = getContainer(gridstore, containerNameList[n + i]);
+                containerList.add(container);
+                for (String aggregation : aggregationList_) {
+                    queryList.add(container.query("select " + aggregation + where, AggregationResult.class));
+                }
+            }
+            gridstore.fetchAll(queryList);
+
+            Date windowStart = null;
+            if (GS_INPUT_SPLIT_TIME_WINDOW.get(conf_) != null) {
+                windowStart = new Date(getWindowStart(keyRangeStart_));
+            }
+            for (int i = 0; i < numContainers; i++) {
+                Row row = gridstore.createRow(aggregationSchema_);
+                int column = 0;
+                row.setValue(column++, containerNameList[n + i]);
+                if (windowStart != null) {
+                    row.setValue(column++, windowStart);
+                }
+                for (int j = 0; j < numAggregations; j++) {
+                    RowSet<AggregationResult> rowSet = queryList.get(i * numAggregations + j).getRowSet();
+                    AggregationResult result = rowSet.hasNext() ? rowSet.next() : null;
+                    row.setValue(column, getAggregationValue(aggregationSchema_.getColumnInfo(column).getType(), result));
+                    column++;
+                }
+                List<Row> rowList = new ArrayList<Row>(1);
+                rowList.add(row);
+                containerList_.add(null);
+                queryList_.add(null);
+                rowsetList_.add(new GDRowSet(rowList));
+            }
+        } finally {
+            for (Query<AggregationResult> query : queryList) {
+                query.close();
+            }
+            for (Container<Object, Row> container : containerList) {
+                container.close();
+            }
+        }
+    }
+
+    // An aggregation without result, such as MIN over no rows, is read as 0 (the epoch for TIMESTAMP)
+    private static Object getAggregationValue(GSType type, AggregationResult result) {
+        switch (type) {
+        case DOUBLE:
+            Double doubleValue = (result == null) ? null : result.getDouble();
+            return (doubleValue == null) ? Double.valueOf(0) : doubleValue;
+        case TIMESTAMP:
+            Date timestampValue = (result == null) ? null : result.getTimestamp();
+            return (timestampValue == null) ? new Date(0) : timestampValue;
+        default:
+            Long longValue = (result == null) ? null : result.getLong();
+            return (longValue == null) ? Long.valueOf(0) : longValue;
+        }
+    }
+
+    // Key ranges of time window splits may be clipped, so the start is aligned to the window boundary
+    private long getWindowStart(long time) {
+        long window = GDPropertyUtils.parseDuration(GS_INPUT_SPLIT_TIME_WINDOW.get(conf_));
+        long windowStart = time - (time % window);
+        if (time % window < 0) {
+            windowStart -= window;
+        }
+        return windowStart;
+    }
+
+    private static List<GSContainerSplit> divideSplit(GSContainerSplit split, int numSplits) {
+        int partitionCount = split.getContainerInfoLength();
+        numSplits = Math.min(numSplits, partitionCount);
+        List<GSContainerSplit> splitList = new ArrayList<GSContainerSplit>();
+        if (numSplits <= 1) {
+            splitList.add(split);
+            return splitList;
+        }
+
+        for (int i = 0; i < numSplits; i++) {
+            int count = (partitionCount - i + numSplits - 1) / numSplits;
+            String[][] partitionHostList = new String[count][];
+            String[][] containerNameList = new String[count][];
+            for (int j = 0; j < count; j++) {
+                int index = i + j * numSplits;
+                partitionHostList[j] = split.getPartitionHosts(index);
+                containerNameList[j] = new String[split.getContainerNameCount(index)];
+                Iterator<String> it = split.getContainerNames(index);
+                for (int k = 0; k < containerNameList[j].length; k++) {
+                    containerNameList[j][k] = it.next();
+                }
+            }
+            GSContainerSplit subSplit = new GSContainerSplit(partitionHostList, containerNameList);
+            if (split.isKeyRangeAssigned()) {
+                subSplit = new GSContainerSplit(subSplit, split.getKeyRangeStart(), split.getKeyRangeEnd());
+            }
+            subSplit.setSchema(split.getSchema());
+            splitList.add(subSplit);
+        }
+        return splitList;
+    }
+
+    private int[] getColumnIndexes(ContainerInfo containerInfo, String containerName) throws GSException {
+        List<String> columns = GDPropertyUtils.getPropertyList(conf_, GS_INPUT_COLUMNS);
+        if (columns.isEmpty()) {
+            return null;
+        }
+        int[] columnIndexes = new int[columns.size()];
+        for (int i = 0; i < columnIndexes.length; i++) {
+            columnIndexes[i] = -1;
+            for (int j = 0; j < containerInfo.getColumnCount(); j++) {
+                if (containerInfo.getColumnInfo(j).getName().equalsIgnoreCase(columns.get(i))) {
+                    columnIndexes[i] = j;
+                    break;
+                }
+            }
+            if (columnIndexes[i] < 0) {
+                throw new GSException("Unknown column name(" + columns.get(i) + ") in container(" + containerName + ")");
+            }
+        }
+        return columnIndexes;
+    }
+
+    private String selectHost(String[] hosts) {
+        if (localHost_ == null) {
+            try {
+                localHost_ = InetAddress.getLocalHost().getCanonicalHostName();
+            } catch (UnknownHostException e) {
+                localHost_ = "";
+            }
+        }
+        for (String host : hosts) {
+            if (host.equals(localHost_)) {
+                return host;
+            }
+        }
+        return hosts[0];
+    }
+
+    private void setKeyRange(RowKeyPredicate<Object> predicate) throws GSException {
+        if (! keyRangeAssigned_) {
+            return;
+        }
+        if (keyRangeStart_ != null) {
+            predicate.setStart(toKeyObject(keyRangeStart_));
+        }
+        if (keyRangeEnd_ != null) {
+            predicate.setFinish(toKeyObject(keyRangeEnd_ - 1));
+        }
+    }
+
+    private Object toKeyObject(long value) {
+        switch (keyType_) {
+        case INTEGER:
+            return Integer.valueOf((int) value);
+        case TIMESTAMP:
+            return new Date(value);
+        default:
+            return Long.valueOf(value);
         }
     }
 
@@ -445,7 +879,15 @@ public class GDRecordReader {
         if (fetchSize_ > 0) {
             multiGetSize_ = 1;
         }
-        String tql = createTql(cond, fetchSize_);
+        cond = normalizeCond(cond);
+        // A condition with its own ORDER BY cannot be paged by row key, so it is read with the OFFSET clause
+        boolean keyset = fetchSize_ > 0 && GDQueryUtils.isKeysetSupported(keyType_) && ! GDQueryUtils.hasOrderByClause(cond);
+        String tql;
+        if (keyset) {
+            tql = GDQueryUtils.createKeysetTql(cond, keyColumnName_, keyType_, null, fetchSize_);
+        } else {
+            tql = createTql(cond, fetchSize_);
+        }
 
         if (multiGetSize_ == 0 || multiGetSize_ > 1) {
             for (int i = 0; i < numContainers; i++) {
@@ -471,19 +913,28 @@ public class GDRecordReader {
 
                 RowSet<Row> rowset = null;
                 rowset = query.fetch(false);
-                rowsetList_.add(new GDRowSet(query, rowset, containerList_.get(i), tql, fetchSize_));
+                if (keyset) {
+                    rowsetList_.add(new GDRowSet(query, rowset, containerList_.get(i), cond, keyColumnName_, keyType_, fetchSize_));
+                } else {
+                    rowsetList_.add(new GDRowSet(query, rowset, containerList_.get(i), tql, fetchSize_));
+                }
             }
         }
     }
 
-    private String createTql(String cond, int tqlLimit) {
-        String tql = "select *";
+    private String normalizeCond(String cond) {
         if (cond != null) {
             cond = cond.trim();
             if (cond.length() == 0) {
                 cond = null;
             }
         }
+        return cond;
+    }
+
+    private String createTql(String cond, int tqlLimit) {
+        String tql = "select *";
+        cond = normalizeCond(cond);
         if (cond != null) {
             tql += " where " + cond;
         }
@@ -498,6 +949,7 @@ public class GDRecordReader {
         Container<Object, Row> container = gridstore.getContainer(containerName);
 
         if (container == null) {
+            schemaCache_.remove(containerName);
             throw new GSException("UNKNOWN CONTAINER(" + containerName + ")");
         }
 
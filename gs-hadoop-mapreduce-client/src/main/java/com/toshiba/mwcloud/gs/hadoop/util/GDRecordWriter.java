@@ -21,12 +21,19 @@ import static com.toshiba.mwcloud.gs.hadoop.conf.GDProperty.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+
+import com.toshiba.mwcloud.gs.hadoop.conf.GDPropertyUtils;
+import com.toshiba.mwcloud.gs.hadoop.io.GSRowWritable;
 
 import com.toshiba.mwcloud.gs.ContainerInfo;
 import com.toshiba.mwcloud.gs.GSException;
+import com.toshiba.mwcloud.gs.GridStore;
+import com.toshiba.mwcloud.gs.GridStoreFactory;
 import com.toshiba.mwcloud.gs.Row;
 
 import java.util.ArrayList;
@@ -43,6 +50,10 @@ public class GDRecordWriter extends GDRecordWriterBase {
 
     private List<Row> listRow_ = null;
 
+    private GDFlusher<Row[]> flusher_ = null;
+
+    private GridStore flusherGridstore_ = null;
+
     /**
      * <div lang="ja">
      * コンストラクタ
@@ -63,29 +74,56 @@ public class GDRecordWriter extends GDRecordWriterBase {
             throw new GSException("'" + GS_OUTPUT_CONTAINER_NAME.getKey() + "' is not defined");
         }
 
-        initialize(conf_, containerName);
+        initialize(conf_, containerName, context.getTaskAttemptID());
     }
 
     /**
      * <div lang="ja">
      * Rowオブジェクトを書き込み用バッファに格納します。<br/>
      * バッファが溢れたらバッファ中のRowオブジェクトを一括してGridDBに書き込みます。
+     * バッファはロウ数が上限に達するか、バイト数の上限が設定されていればロウデータの推定サイズが上限に達すると溢れます。
      * @param row Rowオブジェクト
      * @throws GSException GridDBで例外が発生しました
      * </div><div lang="en">
      * Store Row objects in write buffer and write Row objects in the buffer when overflowed to GridDB.
+     * The buffer overflows when it holds the maximum number of rows or, if a byte budget is set, when the estimated size of rows reaches the budget.
      * @param row Row object
      * @throws GSException an exception occurred in GridDB
      * </div>
      */
     public void putRow(Row row) throws GSException {
+        putRow(row, null);
+    }
+
+    /**
+     * <div lang="ja">
+     * 値を設定したGSRowWritableオブジェクトとともにRowオブジェクトを書き込み用バッファに格納します。<br/>
+     * バイト数の上限が設定されている場合、ロウデータのサイズはRowオブジェクトから配列を複製せずにGSRowWritableオブジェクトから見積もります。
+     * @param row Rowオブジェクト
+     * @param value Rowオブジェクトに値を設定したGSRowWritableオブジェクト、Rowオブジェクトから見積もる場合はnull
+     * @throws GSException GridDBで例外が発生しました
+     * </div><div lang="en">
+     * Store Row object in write buffer together with the GSRowWritable object from which its values are set.<br/>
+     * If a byte budget is set, the size of row data is estimated from the GSRowWritable object without copying arrays from the Row object.
+     * @param row Row object
+     * @param value GSRowWritable object from which the values of the Row object are set or null to estimate from the Row object
+     * @throws GSException an exception occurred in GridDB
+     * </div>
+     */
+    public void putRow(Row row, GSRowWritable value) throws GSException {
+        if (flusher_ != null) {
+            flusher_.checkError();
+        }
         if (listRow_ == null) {
             listRow_ = new ArrayList<Row>();
         }
         listRow_.add(row);
 
         rowBufferCount_++;
-        if (rowBufferCount_ >= rowBufferSize_) {
+        if (rowBufferBytes_ > 0) {
+            rowBufferByteCount_ += (value != null) ? value.getEstimatedSize() : estimateRowSize(row, columnTypes_);
+        }
+        if (isRowBufferFull()) {
             flushBuffer();
         }
     }
@@ -102,7 +140,7 @@ public class GDRecordWriter extends GDRecordWriterBase {
      * </div>
      */
     public Row getRow() throws GSException {
-        return rowBuffer_[rowBufferCount_];
+        return getBufferedRow();
     }
 
     /**
@@ -115,31 +153,73 @@ public class GDRecordWriter extends GDRecordWriterBase {
      * </div>
      */
     public void close() throws GSException {
-        if (rowBufferCount_ > 0) {
-            flushBuffer();
-        }
-
-        if (gridstore_ != null) {
-            gridstore_.close();
-            gridstore_ = null;
+        try {
+            if (rowBufferCount_ > 0) {
+                flushBuffer();
+            }
+        } finally {
+            try {
+                if (flusher_ != null) {
+                    GDFlusher<Row[]> flusher = flusher_;
+                    flusher_ = null;
+                    flusher.close();
+                }
+            } finally {
+                try {
+                    if (flusherGridstore_ != null) {
+                        flusherGridstore_.close();
+                        flusherGridstore_ = null;
+                    }
+                } finally {
+                    if (gridstore_ != null) {
+                        gridstore_.close();
+                        gridstore_ = null;
+                    }
+                }
+            }
         }
     }
 
-    private void initialize(Configuration conf, String containerName) throws GSException {
+    private void initialize(Configuration conf, String containerName, TaskAttemptID attemptId) throws GSException {
         containerName_ = containerName;
         ContainerInfo containerInfo = gridstore_.getContainerInfo(containerName_);
         if (containerInfo == null) {
             throw new GSException("Unknown container name(" + containerName_ + ")");
         }
         initRowBuffer(containerInfo);
+
+        // Rows are written to the staging container of the task attempt, which GSOutputCommitter promotes or drops
+        if (GDStagingUtils.isStagingEnabled(conf)) {
+            containerName_ = GDStagingUtils.getStagingContainerName(containerName, attemptId);
+            GDStagingUtils.createStagingContainer(gridstore_, containerInfo, containerName_);
+        }
+
+        int flushBuffers = GDPropertyUtils.getInteger(conf, GS_OUTPUT_FLUSH_BUFFERS);
+        if (flushBuffers > 1) {
+            List<Row[]> bufferList = new ArrayList<Row[]>();
+            for (int i = 1; i < flushBuffers; i++) {
+                bufferList.add(createRowBuffer());
+            }
+            // Rows are created on demand by the task thread, so the flusher uses its own GridStore
+            Properties prop = GDPropertyUtils.getGSProp(conf, GDPropertyUtils.getGSPropertiesToWrite());
+            flusherGridstore_ = GridStoreFactory.getInstance().getGridStore(prop);
+            flusher_ = new GDFlusher<Row[]>(flusherGridstore_, bufferList);
+            flusher_.start();
+        }
     }
 
     private void flushBuffer() throws GSException {
         Map<String, List<Row>> rowsMap = new HashMap<String, List<Row>>();
         rowsMap.put(containerName_, listRow_);
-        gridstore_.multiPut(rowsMap);
-        listRow_.clear();
+        if (flusher_ != null) {
+            rowBuffer_ = flusher_.flush(rowsMap, rowBuffer_);
+            listRow_ = null;
+        } else {
+            gridstore_.multiPut(rowsMap);
+            listRow_.clear();
+        }
 
         rowBufferCount_ = 0;
+        rowBufferByteCount_ = 0;
     }
 }
@@ -18,11 +18,14 @@ package com.toshiba.mwcloud.gs.hadoop.util;
 
 import static com.toshiba.mwcloud.gs.hadoop.conf.GDProperty.*;
 
+import java.sql.Blob;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 
 import com.toshiba.mwcloud.gs.hadoop.conf.GDPropertyUtils;
@@ -31,6 +34,7 @@ import com.toshiba.mwcloud.gs.ContainerInfo;
 import com.toshiba.mwcloud.gs.ColumnInfo;
 import com.toshiba.mwcloud.gs.GridStore;
 import com.toshiba.mwcloud.gs.GSException;
+import com.toshiba.mwcloud.gs.GSType;
 import com.toshiba.mwcloud.gs.GridStoreFactory;
 import com.toshiba.mwcloud.gs.Row;
 
@@ -52,6 +56,12 @@ public class GDRecordWriterBase {
     protected Row[] rowBuffer_;
     protected int rowBufferCount_;
 
+    protected long rowBufferBytes_;
+    protected long rowBufferByteCount_;
+
+    protected ContainerInfo containerInfo_;
+    protected GSType[] columnTypes_;
+
     /**
      * <div lang="ja">
      * コンストラクタ
@@ -73,17 +83,18 @@ public class GDRecordWriterBase {
         gridstore_ = GridStoreFactory.getInstance().getGridStore(prop);
 
         rowBufferSize_ = GDPropertyUtils.getInteger(conf, GS_OUTPUT_ROW_BUFFER_SIZE);
+        rowBufferBytes_ = GDPropertyUtils.getLong(conf, GS_OUTPUT_ROW_BUFFER_BYTES);
 
         rowBuffer_ = null;
         rowBufferCount_ = 0;
+        rowBufferByteCount_ = 0;
     }
 
     protected void initRowBuffer(ContainerInfo containerInfo) throws GSException {
         if (rowBuffer_ == null) {
-            rowBuffer_ = new Row[rowBufferSize_];
-            for (int i = 0; i < rowBufferSize_; i++) {
-                rowBuffer_[i] = gridstore_.createRow(containerInfo);
-            }
+            containerInfo_ = containerInfo;
+            columnTypes_ = getColumnTypes(containerInfo);
+            rowBuffer_ = createRowBuffer();
             rowBufferCount_ = 0;
 
             List<String> columnTypeList = new ArrayList<String>();
@@ -106,4 +117,119 @@ public class GDRecordWriterBase {
             conf_.set(GS_OUTPUT_COLUMN_NAME_LIST.getKey(), columnNameBuffer.toString());
         }
     }
+
+    // Row objects are created on demand by getBufferedRow
+    protected Row[] createRowBuffer() {
+        return new Row[rowBufferSize_];
+    }
+
+    protected Row getBufferedRow() throws GSException {
+        Row row = rowBuffer_[rowBufferCount_];
+        if (row == null) {
+            row = gridstore_.createRow(containerInfo_);
+            rowBuffer_[rowBufferCount_] = row;
+        }
+        return row;
+    }
+
+    protected boolean isRowBufferFull() {
+        return rowBufferCount_ >= rowBufferSize_ || (rowBufferBytes_ > 0 && rowBufferByteCount_ >= rowBufferBytes_);
+    }
+
+    protected static GSType[] getColumnTypes(ContainerInfo containerInfo) {
+        GSType[] columnTypes = new GSType[containerInfo.getColumnCount()];
+        for (int i = 0; i < columnTypes.length; i++) {
+            columnTypes[i] = containerInfo.getColumnInfo(i).getType();
+        }
+        return columnTypes;
+    }
+
+    /**
+     * <div lang="ja">
+     * Rowオブジェクトの推定サイズを返します。文字列はUTF-8でのバイト数で見積もります。<br/>
+     * 配列型のカラム値はRowオブジェクトから複製して取得されるため、可能な場合はGSRowWritable#getEstimatedSizeを使用します。
+     * @param row Rowオブジェクト
+     * @param columnTypes カラム型の配列
+     * @return 推定サイズ(バイト数)
+     * @throws GSException GridDBで例外が発生しました
+     * </div><div lang="en">
+     * Return the estimated size of the Row object. Strings are estimated by their length in UTF-8.<br/>
+     * Array column values are copied when acquired from the Row object, so GSRowWritable#getEstimatedSize is used where possible.
+     * @param row Row object
+     * @param columnTypes column type array
+     * @return estimated size in bytes
+     * @throws GSException an exception occurred in GridDB
+     * </div>
+     */
+    protected static long estimateRowSize(Row row, GSType[] columnTypes) throws GSException {
+        long size = 0;
+        for (int i = 0; i < columnTypes.length; i++) {
+            if (row.isNull(i)) {
+                continue;
+            }
+            switch (columnTypes[i]) {
+            case BOOL:
+            case BYTE:
+                size += 1;
+                break;
+            case SHORT:
+                size += 2;
+                break;
+            case INTEGER:
+            case FLOAT:
+                size += 4;
+                break;
+            case LONG:
+            case DOUBLE:
+            case TIMESTAMP:
+                size += 8;
+                break;
+            case STRING:
+                size += 4 + Text.utf8Length(row.getString(i));
+                break;
+            case BLOB:
+                Blob blob = row.getBlob(i);
+                try {
+                    size += 4 + blob.length();
+                } catch (SQLException e) {
+                    throw new GSException(e);
+                }
+                break;
+            case BOOL_ARRAY:
+                size += 4 + row.getBoolArray(i).length;
+                break;
+            case BYTE_ARRAY:
+                size += 4 + row.getByteArray(i).length;
+                break;
+            case SHORT_ARRAY:
+                size += 4 + row.getShortArray(i).length * 2L;
+                break;
+            case INTEGER_ARRAY:
+                size += 4 + row.getIntegerArray(i).length * 4L;
+                break;
+            case FLOAT_ARRAY:
+                size += 4 + row.getFloatArray(i).length * 4L;
+                break;
+            case LONG_ARRAY:
+                size += 4 + row.getLongArray(i).length * 8L;
+                break;
+            case DOUBLE_ARRAY:
+                size += 4 + row.getDoubleArray(i).length * 8L;
+                break;
+            case TIMESTAMP_ARRAY:
+                size += 4 + row.getTimestampArray(i).length * 8L;
+                break;
+            case STRING_ARRAY:
+                size += 4;
+                for (String value : row.getStringArray(i)) {
+                    size += 4 + Text.utf8Length(value);
+                }
+                break;
+            default:
+                size += 4 + Text.utf8Length(String.valueOf(row.getValue(i)));
+                break;
+            }
+        }
+        return size;
+    }
 }
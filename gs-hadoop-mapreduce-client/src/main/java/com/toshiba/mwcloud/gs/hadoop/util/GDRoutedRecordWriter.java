@@ -0,0 +1,362 @@
+/*
+   Copyright (c) 2016 TOSHIBA CORPORATION.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.toshiba.mwcloud.gs.hadoop.util;
+
+import static com.toshiba.mwcloud.gs.hadoop.conf.GDProperty.*;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+
+import com.toshiba.mwcloud.gs.ContainerInfo;
+import com.toshiba.mwcloud.gs.GSException;
+import com.toshiba.mwcloud.gs.GSType;
+import com.toshiba.mwcloud.gs.GridStore;
+import com.toshiba.mwcloud.gs.GridStoreFactory;
+import com.toshiba.mwcloud.gs.PartitionController;
+import com.toshiba.mwcloud.gs.Row;
+import com.toshiba.mwcloud.gs.hadoop.conf.GDPropertyUtils;
+import com.toshiba.mwcloud.gs.hadoop.io.GSRowWritable;
+
+/**
+ * <div lang="ja">
+ * 書き込み先のコンテナをロウデータ毎に選択するGridDB用RecordWriterクラス共通の処理を実行します。<br/>
+ * コンテナ毎のバッファに格納したロウデータの合計がgs.output.row.buffer.sizeまたはgs.output.row.buffer.bytesに達すると、
+ * 全てのコンテナのロウデータを1回のmultiPutで一括してGridDBに書き込みます。<br/>
+ * gs.output.flush.partitionedがtrueの場合は、ロウデータをパーティション毎にバッファし、
+ * パーティション毎のロウ数またはバイト数が上限に達する度にそのパーティションのロウデータをバックグラウンドのスレッドで書き込みます。
+ * 全パーティションの合計バイト数が上限に達した場合は、最も大きいパーティションのロウデータを書き込みます。
+ * </div><div lang="en">
+ * Common processing for GridDB RecordWriters selecting the output container for each row data.<br/>
+ * When the total of row data stored in the buffers of the containers reaches gs.output.row.buffer.size or gs.output.row.buffer.bytes,
+ * the row data of all containers is written to GridDB collectively by one multiPut.<br/>
+ * If gs.output.flush.partitioned is true, row data is buffered per partition, and whenever the number of rows or bytes
+ * of a partition reaches the limit, the row data of the partition is written in a background thread.
+ * If the total bytes of all partitions reaches the limit, the row data of the largest partition is written.
+ * </div>
+ */
+public class GDRoutedRecordWriter extends GDRecordWriterBase {
+    private final Map<String, ContainerBuffer> bufferMap_ = new HashMap<String, ContainerBuffer>();
+
+    private PartitionController controller_ = null;
+
+    private PartitionBuffer[] partitionBuffers_ = null;
+
+    private final Map<InetAddress, GDFlusher<Map<String, List<Row>>>> hostFlusherMap_ =
+            new HashMap<InetAddress, GDFlusher<Map<String, List<Row>>>>();
+
+    private final List<GDFlusher<Map<String, List<Row>>>> flusherList_ = new ArrayList<GDFlusher<Map<String, List<Row>>>>();
+
+    private final List<GridStore> gridstoreList_ = new ArrayList<GridStore>();
+
+    /**
+     * <div lang="ja">
+     * コンストラクタ
+     * @param context TaskAttempContextオブジェクト
+     * @throws GSException GridDBで例外が発生しました
+     * </div><div lang="en">
+     * Constructor
+     * @param context TaskAttempContext object
+     * @throws GSException an exception occurred in GridDB
+     * </div>
+     */
+    public GDRoutedRecordWriter(TaskAttemptContext context) throws GSException {
+        super(context);
+
+        if (Boolean.parseBoolean(GS_OUTPUT_FLUSH_PARTITIONED.get(conf_))) {
+            controller_ = gridstore_.getPartitionController();
+            partitionBuffers_ = new PartitionBuffer[controller_.getPartitionCount()];
+
+            int flushThreads = GDPropertyUtils.getInteger(conf_, GS_OUTPUT_FLUSH_THREADS);
+            int flushBuffers = Math.max(1, GDPropertyUtils.getInteger(conf_, GS_OUTPUT_FLUSH_BUFFERS) - 1);
+            Properties prop = GDPropertyUtils.getGSProp(conf_, GDPropertyUtils.getGSPropertiesToWrite());
+            for (int i = 0; i < flushThreads; i++) {
+                GridStore gridstore = GridStoreFactory.getInstance().getGridStore(prop);
+                gridstoreList_.add(gridstore);
+
+                List<Map<String, List<Row>>> bufferList = new ArrayList<Map<String, List<Row>>>();
+                for (int j = 0; j < flushBuffers; j++) {
+                    bufferList.add(new HashMap<String, List<Row>>());
+                }
+                GDFlusher<Map<String, List<Row>>> flusher = new GDFlusher<Map<String, List<Row>>>(gridstore, bufferList);
+                flusherList_.add(flusher);
+                flusher.start();
+            }
+        }
+    }
+
+    /**
+     * <div lang="ja">
+     * 指定されたコンテナへの書き込み用データを設定するための空のRowオブジェクトを返します。
+     * @param containerName コンテナ名
+     * @return Rowオブジェクト
+     * @throws GSException コンテナが存在しないか、GridDBで例外が発生しました
+     * </div><div lang="en">
+     * Return the empty Row object for storing write data for the specified container.
+     * @param containerName container name
+     * @return Row object
+     * @throws GSException the container does not exist or an exception occurred in GridDB
+     * </div>
+     */
+    public Row getRow(String containerName) throws GSException {
+        ContainerBuffer buffer = getBuffer(containerName);
+        if (buffer.freeRowList_.isEmpty()) {
+            buffer.freeRowList_.add(gridstore_.createRow(buffer.containerInfo_));
+        }
+        return buffer.freeRowList_.get(buffer.freeRowList_.size() - 1);
+    }
+
+    /**
+     * <div lang="ja">
+     * Rowオブジェクトを指定されたコンテナの書き込み用バッファに格納します。<br/>
+     * バッファ中のロウ数の合計が上限に達したら、全てのバッファ中のRowオブジェクトを一括してGridDBに書き込みます。
+     * パーティション毎にバッファする場合は、パーティションのロウ数が上限に達したらそのパーティションのRowオブジェクトを書き込みます。
+     * @param containerName コンテナ名
+     * @param row Rowオブジェクト
+     * @throws GSException コンテナが存在しないか、GridDBで例外が発生しました
+     * </div><div lang="en">
+     * Store Row object in write buffer of the specified container.<br/>
+     * When the total number of rows in the buffers reaches the limit, Row objects in all buffers are written to GridDB collectively.
+     * If buffered per partition, Row objects of a partition are written when the number of rows of the partition reaches the limit.
+     * @param containerName container name
+     * @param row Row object
+     * @throws GSException the container does not exist or an exception occurred in GridDB
+     * </div>
+     */
+    public void putRow(String containerName, Row row) throws GSException {
+        putRow(containerName, row, null);
+    }
+
+    /**
+     * <div lang="ja">
+     * 値を設定したGSRowWritableオブジェクトとともにRowオブジェクトを指定されたコンテナの書き込み用バッファに格納します。<br/>
+     * バイト数の上限が設定されている場合、ロウデータのサイズはRowオブジェクトから配列を複製せずにGSRowWritableオブジェクトから見積もります。
+     * @param containerName コンテナ名
+     * @param row Rowオブジェクト
+     * @param value Rowオブジェクトに値を設定したGSRowWritableオブジェクト、Rowオブジェクトから見積もる場合はnull
+     * @throws GSException コンテナが存在しないか、GridDBで例外が発生しました
+     * </div><div lang="en">
+     * Store Row object in write buffer of the specified container together with the GSRowWritable object from which its values are set.<br/>
+     * If a byte budget is set, the size of row data is estimated from the GSRowWritable object without copying arrays from the Row object.
+     * @param containerName container name
+     * @param row Row object
+     * @param value GSRowWritable object from which the values of the Row object are set or null to estimate from the Row object
+     * @throws GSException the container does not exist or an exception occurred in GridDB
+     * </div>
+     */
+    public void putRow(String containerName, Row row, GSRowWritable value) throws GSException {
+        ContainerBuffer buffer = getBuffer(containerName);
+        int last = buffer.freeRowList_.size() - 1;
+        if (last >= 0 && buffer.freeRowList_.get(last) == row) {
+            buffer.freeRowList_.remove(last);
+        }
+        buffer.rowList_.add(row);
+
+        long rowSize = 0;
+        if (rowBufferBytes_ > 0) {
+            rowSize = (value != null) ? value.getEstimatedSize() : estimateRowSize(row, buffer.columnTypes_);
+        }
+        rowBufferCount_++;
+        rowBufferByteCount_ += rowSize;
+        PartitionBuffer partitionBuffer = buffer.partitionBuffer_;
+        if (partitionBuffer != null) {
+            partitionBuffer.flusher_.checkError();
+            partitionBuffer.rowCount_++;
+            partitionBuffer.byteCount_ += rowSize;
+            if (partitionBuffer.rowCount_ >= rowBufferSize_
+                    || (rowBufferBytes_ > 0 && partitionBuffer.byteCount_ >= rowBufferBytes_)) {
+                flushPartition(partitionBuffer);
+            } else if (rowBufferBytes_ > 0 && rowBufferByteCount_ >= rowBufferBytes_) {
+                flushPartition(getLargestPartitionBuffer());
+            }
+        } else if (isRowBufferFull()) {
+            flushBuffer();
+        }
+    }
+
+    /**
+     * <div lang="ja">
+     * クローズ処理を実行します。
+     * @throws GSException GridDBで例外が発生しました
+     * </div><div lang="en">
+     * Perform close processing.
+     * @throws GSException an exception occurred in GridDB
+     * </div>
+     */
+    public void close() throws GSException {
+        try {
+            if (partitionBuffers_ != null) {
+                for (PartitionBuffer partitionBuffer : partitionBuffers_) {
+                    if (partitionBuffer != null && partitionBuffer.rowCount_ > 0) {
+                        flushPartition(partitionBuffer);
+                    }
+                }
+            } else if (rowBufferCount_ > 0) {
+                flushBuffer();
+            }
+        } finally {
+            try {
+                GSException error = null;
+                for (GDFlusher<Map<String, List<Row>>> flusher : flusherList_) {
+                    try {
+                        flusher.close();
+                    } catch (GSException e) {
+                        if (error == null) {
+                            error = e;
+                        }
+                    }
+                }
+                if (error != null) {
+                    throw error;
+                }
+            } finally {
+                flusherList_.clear();
+                for (GridStore gridstore : gridstoreList_) {
+                    gridstore.close();
+                }
+                gridstoreList_.clear();
+                if (controller_ != null) {
+                    controller_.close();
+                    controller_ = null;
+                }
+                if (gridstore_ != null) {
+                    gridstore_.close();
+                    gridstore_ = null;
+                }
+            }
+        }
+    }
+
+    private ContainerBuffer getBuffer(String containerName) throws GSException {
+        ContainerBuffer buffer = bufferMap_.get(containerName);
+        if (buffer == null) {
+            ContainerInfo containerInfo = gridstore_.getContainerInfo(containerName);
+            if (containerInfo == null) {
+                throw new GSException("Unknown container name(" + containerName + ")");
+            }
+            buffer = new ContainerBuffer(containerInfo);
+            if (partitionBuffers_ != null) {
+                buffer.partitionBuffer_ = getPartitionBuffer(controller_.getPartitionIndexOfContainer(containerName));
+                buffer.partitionBuffer_.bufferMap_.put(containerName, buffer);
+            }
+            bufferMap_.put(containerName, buffer);
+        }
+        return buffer;
+    }
+
+    private PartitionBuffer getPartitionBuffer(int partitionIndex) throws GSException {
+        PartitionBuffer partitionBuffer = partitionBuffers_[partitionIndex];
+        if (partitionBuffer == null) {
+            // Partitions owned by the same node are written by the same thread
+            InetAddress host = controller_.getOwnerHost(partitionIndex);
+            GDFlusher<Map<String, List<Row>>> flusher = hostFlusherMap_.get(host);
+            if (flusher == null) {
+                flusher = flusherList_.get(hostFlusherMap_.size() % flusherList_.size());
+                hostFlusherMap_.put(host, flusher);
+            }
+            partitionBuffer = new PartitionBuffer(flusher);
+            partitionBuffers_[partitionIndex] = partitionBuffer;
+        }
+        return partitionBuffer;
+    }
+
+    private void flushBuffer() throws GSException {
+        Map<String, List<Row>> rowsMap = new HashMap<String, List<Row>>();
+        for (Map.Entry<String, ContainerBuffer> entry : bufferMap_.entrySet()) {
+            ContainerBuffer buffer = entry.getValue();
+            if (! buffer.rowList_.isEmpty()) {
+                rowsMap.put(entry.getKey(), buffer.rowList_);
+            }
+        }
+        gridstore_.multiPut(rowsMap);
+
+        for (ContainerBuffer buffer : bufferMap_.values()) {
+            buffer.freeRowList_.addAll(buffer.rowList_);
+            buffer.rowList_.clear();
+        }
+        rowBufferCount_ = 0;
+        rowBufferByteCount_ = 0;
+    }
+
+    private PartitionBuffer getLargestPartitionBuffer() {
+        PartitionBuffer largest = null;
+        for (PartitionBuffer partitionBuffer : partitionBuffers_) {
+            if (partitionBuffer != null && (largest == null || partitionBuffer.byteCount_ > largest.byteCount_)) {
+                largest = partitionBuffer;
+            }
+        }
+        return largest;
+    }
+
+    private void flushPartition(PartitionBuffer partitionBuffer) throws GSException {
+        Map<String, List<Row>> rowsMap = new HashMap<String, List<Row>>();
+        for (Map.Entry<String, ContainerBuffer> entry : partitionBuffer.bufferMap_.entrySet()) {
+            ContainerBuffer buffer = entry.getValue();
+            if (! buffer.rowList_.isEmpty()) {
+                rowsMap.put(entry.getKey(), buffer.rowList_);
+                buffer.rowList_ = new ArrayList<Row>();
+            }
+        }
+        rowBufferCount_ -= partitionBuffer.rowCount_;
+        rowBufferByteCount_ -= partitionBuffer.byteCount_;
+        partitionBuffer.rowCount_ = 0;
+        partitionBuffer.byteCount_ = 0;
+
+        // Row objects of a batch whose writing is completed are reused
+        Map<String, List<Row>> writtenMap = partitionBuffer.flusher_.flush(rowsMap, rowsMap);
+        for (Map.Entry<String, List<Row>> entry : writtenMap.entrySet()) {
+            bufferMap_.get(entry.getKey()).freeRowList_.addAll(entry.getValue());
+        }
+    }
+
+    private static class ContainerBuffer {
+        private final ContainerInfo containerInfo_;
+
+        private final GSType[] columnTypes_;
+
+        private List<Row> rowList_ = new ArrayList<Row>();
+
+        // Row objects are reused after flushed
+        private final List<Row> freeRowList_ = new ArrayList<Row>();
+
+        private PartitionBuffer partitionBuffer_ = null;
+
+        private ContainerBuffer(ContainerInfo containerInfo) {
+            containerInfo_ = containerInfo;
+            columnTypes_ = getColumnTypes(containerInfo);
+        }
+    }
+
+    private static class PartitionBuffer {
+        private final GDFlusher<Map<String, List<Row>>> flusher_;
+
+        private final Map<String, ContainerBuffer> bufferMap_ = new HashMap<String, ContainerBuffer>();
+
+        private int rowCount_ = 0;
+
+        private long byteCount_ = 0;
+
+        private PartitionBuffer(GDFlusher<Map<String, List<Row>>> flusher) {
+            flusher_ = flusher;
+        }
+    }
+}
@@ -20,6 +20,7 @@ import java.util.List;
 
 import com.toshiba.mwcloud.gs.Container;
 import com.toshiba.mwcloud.gs.GSException;
+import com.toshiba.mwcloud.gs.GSType;
 import com.toshiba.mwcloud.gs.Query;
 import com.toshiba.mwcloud.gs.Row;
 import com.toshiba.mwcloud.gs.RowSet;
@@ -42,6 +43,10 @@ public class GDRowSet {
     private int offset_;
     private int limit_;
     private int rowCount_;
+    private String cond_;
+    private String keyColumnName_;
+    private GSType keyType_;
+    private Row lastRow_;
 
     /**
      * <div lang="ja">
@@ -72,6 +77,38 @@ public class GDRowSet {
         rowCount_ = 0;
     }
 
+    /**
+     * <div lang="ja">
+     * ロウキーの値を起点にしてページ単位で読み込んだデータを管理するためのオブジェクトを生成します。<br/>
+     * 次のページは、前のページの最後のロウキーより大きいロウキーのロウから読み込みます。
+     * @param query Queryオブジェクト
+     * @param rowSet 最初のページのRowSetオブジェクト
+     * @param container Containerオブジェクト
+     * @param cond TQLの条件式、またはnull
+     * @param keyColumnName ロウキーのカラム名
+     * @param keyType ロウキーの型(STRING/INTEGER/LONG/TIMESTAMP)
+     * @param tqlLimit TQLのLIMIT句の値
+     * </div><div lang="en">
+     * Create an object to read row data in pages starting from a row key value.<br/>
+     * The next page is read from the row whose row key is greater than the last row key of the previous page.
+     * @param query Query object
+     * @param rowSet RowSet object of the first page
+     * @param container Container object
+     * @param cond TQL conditional expression or null
+     * @param keyColumnName column name of row key
+     * @param keyType data type of row key (STRING/INTEGER/LONG/TIMESTAMP)
+     * @param tqlLimit value for TQL LIMIT clause
+     * </div>
+     */
+    public GDRowSet(Query<Row> query, RowSet<Row> rowSet, Container<Object, Row> container,
+            String cond, String keyColumnName, GSType keyType, int tqlLimit) {
+        this(query, rowSet, container, null, tqlLimit);
+        cond_ = cond;
+        keyColumnName_ = keyColumnName;
+        keyType_ = keyType;
+        lastRow_ = null;
+    }
+
     /**
      * <div lang="ja">
      * GridStore#multiGetで読み込んだデータを管理するためのオブジェクトを生成します。
@@ -116,8 +153,14 @@ public class GDRowSet {
                         query_.close();
                         query_ = null;
                     }
-                    offset_ += limit_;
-                    String tql = tql_ + " offset " + offset_;
+                    String tql;
+                    if (keyColumnName_ != null) {
+                        tql = GDQueryUtils.createKeysetTql(cond_, keyColumnName_, keyType_,
+                                lastRow_.getValue(0), limit_);
+                    } else {
+                        offset_ += limit_;
+                        tql = tql_ + " offset " + offset_;
+                    }
                     query_ = container_.query(tql);
                     rowSet_ = query_.fetch(false);
                     ret = rowSet_.hasNext();
@@ -150,6 +193,9 @@ public class GDRowSet {
         if (rowSet_ != null) {
             ret = (Row) rowSet_.next();
             rowCount_++;
+            if (keyColumnName_ != null) {
+                lastRow_ = ret;
+            }
         } else if (rowList_ != null) {
             if (rowListIndex_ < rowList_.size()) {
                 ret = rowList_.get(rowListIndex_++);
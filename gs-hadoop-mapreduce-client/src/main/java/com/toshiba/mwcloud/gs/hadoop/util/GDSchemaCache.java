@@ -0,0 +1,176 @@
+/*
+   Copyright (c) 2016 TOSHIBA CORPORATION.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.toshiba.mwcloud.gs.hadoop.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.apache.hadoop.conf.Configuration;
+
+import static com.toshiba.mwcloud.gs.hadoop.conf.GDProperty.*;
+
+import com.toshiba.mwcloud.gs.hadoop.conf.GDPropertyUtils;
+
+import com.toshiba.mwcloud.gs.ContainerInfo;
+import com.toshiba.mwcloud.gs.GSException;
+import com.toshiba.mwcloud.gs.GridStore;
+
+/**
+ * <div lang="ja">
+ * コンテナ名に対応したContainerInfoオブジェクトをキャッシュし、GridDBへのスキーマ取得の問い合わせを削減します。<br/>
+ * キャッシュの範囲はプロパティgs.input.schema.cacheで指定します。"TASK"ではオブジェクト毎に、"JVM"では接続先毎にJVM内で共有してキャッシュします。
+ * "NONE"ではキャッシュしません。存在しないコンテナはキャッシュしません。<br/>
+ * JVM内のキャッシュは最大10000個のエントリを最近使用した順に保持し、各エントリはgs.input.schema.cache.ttlの期間が経過すると取得し直します。
+ * </div><div lang="en">
+ * Cache of ContainerInfo objects by container name, reducing schema requests to GridDB.<br/>
+ * The scope of the cache is specified by the property gs.input.schema.cache. "TASK" caches in each object,
+ * and "JVM" caches in the JVM shared by each connection destination. "NONE" disables caching. Nonexistent containers are not cached.<br/>
+ * The cache in the JVM keeps at most 10000 entries in least recently used order,
+ * and each entry is acquired again when the period of gs.input.schema.cache.ttl has elapsed.
+ * </div>
+ */
+class GDSchemaCache {
+    private static final int JVM_CACHE_SIZE = 10000;
+
+    private static final Map<String, Entry> JVM_CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > JVM_CACHE_SIZE;
+                }
+            });
+
+    private final Map<String, Entry> cache_;
+
+    private final String keyPrefix_;
+
+    private final long ttl_;
+
+    /**
+     * <div lang="ja">
+     * コンストラクタ
+     * @param conf Configurationオブジェクト
+     * </div><div lang="en">
+     * Constructor
+     * @param conf Configuration object
+     * </div>
+     */
+    GDSchemaCache(Configuration conf) {
+        String mode = GS_INPUT_SCHEMA_CACHE.get(conf);
+        if (mode.equals("JVM")) {
+            cache_ = JVM_CACHE;
+            keyPrefix_ = getClusterKey(conf);
+            ttl_ = GDPropertyUtils.getInteger(conf, GS_INPUT_SCHEMA_CACHE_TTL) * 1000L;
+        } else if (mode.equals("TASK")) {
+            cache_ = new HashMap<String, Entry>();
+            keyPrefix_ = "";
+            ttl_ = Long.MAX_VALUE;
+        } else {
+            cache_ = null;
+            keyPrefix_ = "";
+            ttl_ = Long.MAX_VALUE;
+        }
+    }
+
+    private static String getClusterKey(Configuration conf) {
+        Map<String, String> keyMap = new TreeMap<String, String>();
+        Properties prop = GDPropertyUtils.getGSProp(conf, GDPropertyUtils.getGSPropertiesToRead());
+        for (String name : prop.stringPropertyNames()) {
+            keyMap.put(name, prop.getProperty(name));
+        }
+        return keyMap.toString() + "\0";
+    }
+
+    /**
+     * <div lang="ja">
+     * キャッシュが有効かを判定します。
+     * @return 有効であればtrue、そうでなければfalse
+     * </div><div lang="en">
+     * Determine whether the cache is enabled.
+     * @return true if enabled and false otherwise
+     * </div>
+     */
+    boolean isEnabled() {
+        return cache_ != null;
+    }
+
+    /**
+     * <div lang="ja">
+     * コンテナ名に対応したContainerInfoオブジェクトを返します。キャッシュにない場合はGridDBから取得します。
+     * @param gridstore GridStoreオブジェクト
+     * @param containerName コンテナ名
+     * @return ContainerInfoオブジェクト、コンテナが存在しない場合はnull
+     * @throws GSException GridDBで例外が発生しました
+     * </div><div lang="en">
+     * Return the ContainerInfo object of the container name. If it is not cached, it is acquired from GridDB.
+     * @param gridstore GridStore object
+     * @param containerName container name
+     * @return ContainerInfo object or null if the container does not exist
+     * @throws GSException an exception occurred in GridDB
+     * </div>
+     */
+    ContainerInfo getContainerInfo(GridStore gridstore, String containerName) throws GSException {
+        if (cache_ == null) {
+            return gridstore.getContainerInfo(containerName);
+        }
+        String key = keyPrefix_ + containerName;
+        long now = System.currentTimeMillis();
+        Entry entry = cache_.get(key);
+        if (entry != null && now - entry.time_ < ttl_) {
+            return entry.containerInfo_;
+        }
+        ContainerInfo containerInfo = gridstore.getContainerInfo(containerName);
+        if (containerInfo != null) {
+            cache_.put(key, new Entry(containerInfo, now));
+        } else if (entry != null) {
+            cache_.remove(key);
+        }
+        return containerInfo;
+    }
+
+    /**
+     * <div lang="ja">
+     * コンテナ名に対応したContainerInfoオブジェクトをキャッシュから削除します。キャッシュが無効な場合は何もしません。
+     * @param containerName コンテナ名
+     * </div><div lang="en">
+     * Remove the ContainerInfo object of the container name from the cache. Nothing is done if the cache is disabled.
+     * @param containerName container name
+     * </div>
+     */
+    void remove(String containerName) {
+        if (cache_ != null) {
+            cache_.remove(keyPrefix_ + containerName);
+        }
+    }
+
+    private static class Entry {
+        private final ContainerInfo containerInfo_;
+
+        private final long time_;
+
+        private Entry(ContainerInfo containerInfo, long time) {
+            containerInfo_ = containerInfo;
+            time_ = time;
+        }
+    }
+}
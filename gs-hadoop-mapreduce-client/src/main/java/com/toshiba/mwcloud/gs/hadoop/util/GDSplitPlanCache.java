@@ -0,0 +1,207 @@
+/*
+   Copyright (c) 2016 TOSHIBA CORPORATION.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.toshiba.mwcloud.gs.hadoop.util;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import static com.toshiba.mwcloud.gs.hadoop.conf.GDProperty.*;
+
+import com.toshiba.mwcloud.gs.hadoop.conf.GDPropertyUtils;
+
+import com.toshiba.mwcloud.gs.GSException;
+import com.toshiba.mwcloud.gs.PartitionController;
+
+/**
+ * <div lang="ja">
+ * InputSplit作成時に取得したパーティション毎のコンテナ名とホストをファイルにキャッシュします。<br/>
+ * キャッシュファイルはプロパティgs.input.split.cache.dirで指定したディレクトリに、接続先と入力対象コンテナの指定毎に作成されます。<br/>
+ * 作成からプロパティgs.input.split.cache.ttlで指定した秒数が経過したか、いずれかのパーティションのコンテナ数が変化した場合、キャッシュは無効になります。
+ * </div><div lang="en">
+ * Cache of container names and hosts of each partition acquired when creating InputSplits.<br/>
+ * A cache file is created in the directory specified by the property gs.input.split.cache.dir for each pair of connection and input container settings.<br/>
+ * The cache is invalidated when the number of seconds specified by the property gs.input.split.cache.ttl has passed since its creation,
+ * or when the number of containers of any partition has changed.
+ * </div>
+ */
+class GDSplitPlanCache {
+    private static final Log LOG = LogFactory.getLog(GDSplitPlanCache.class);
+
+    private static final int VERSION = 1;
+
+    private final Configuration conf_;
+
+    private final Path path_;
+
+    private final long ttl_;
+
+    private GDSplitPlanCache(Configuration conf, Path path, long ttl) {
+        conf_ = conf;
+        path_ = path;
+        ttl_ = ttl;
+    }
+
+    /**
+     * <div lang="ja">
+     * プロパティに対応したキャッシュを返します。プロパティgs.input.split.cache.dirが指定されていない場合はnullを返します。
+     * @param conf Configurationオブジェクト
+     * @return GDSplitPlanCacheオブジェクト、またはnull
+     * </div><div lang="en">
+     * Return the cache corresponding to the properties, or null if the property gs.input.split.cache.dir is not specified.
+     * @param conf Configuration object
+     * @return GDSplitPlanCache object or null
+     * </div>
+     */
+    static GDSplitPlanCache getInstance(Configuration conf) {
+        String dir = GS_INPUT_SPLIT_CACHE_DIR.get(conf);
+        if (dir == null) {
+            return null;
+        }
+        long ttl = GDPropertyUtils.getInteger(conf, GS_INPUT_SPLIT_CACHE_TTL) * 1000L;
+        return new GDSplitPlanCache(conf, new Path(dir, getCacheKey(conf) + ".plan"), ttl);
+    }
+
+    private static String getCacheKey(Configuration conf) {
+        Map<String, String> keyMap = new TreeMap<String, String>();
+        Properties prop = GDPropertyUtils.getGSProp(conf, GDPropertyUtils.getGSPropertiesToRead());
+        for (String name : prop.stringPropertyNames()) {
+            keyMap.put(name, prop.getProperty(name));
+        }
+        keyMap.put(GS_INPUT_CONTAINER_NAME_REGEX.getKey(), GS_INPUT_CONTAINER_NAME_REGEX.getProperty(conf));
+        keyMap.put(GS_INPUT_CONTAINER_NAME_LIST.getKey(), GS_INPUT_CONTAINER_NAME_LIST.getProperty(conf));
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Map.Entry<String, String> entry : keyMap.entrySet()) {
+                digest.update(entry.getKey().getBytes("UTF-8"));
+                digest.update((byte) 0);
+                digest.update(entry.getValue().getBytes("UTF-8"));
+                digest.update((byte) 0);
+            }
+            StringBuilder builder = new StringBuilder();
+            for (byte b : digest.digest()) {
+                builder.append(String.format("%02x", b & 0xff));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * <div lang="ja">
+     * キャッシュからパーティション毎の情報を読み込みます。<br/>
+     * キャッシュがないか無効な場合、またはキャッシュの読み込みに失敗した場合はnullを返します。
+     * @param controller PartitionControllerオブジェクト
+     * @return パーティション毎の情報の配列、またはnull
+     * @throws GSException GridDBで例外が発生しました
+     * </div><div lang="en">
+     * Load the information of each partition from the cache.<br/>
+     * Return null if there is no valid cache or the cache cannot be read.
+     * @param controller PartitionController object
+     * @return array of the information of each partition or null
+     * @throws GSException an exception occurred in GridDB
+     * </div>
+     */
+    GDPartitionInfo[] load(PartitionController controller) throws GSException {
+        GDPartitionInfo[] partitionInfoList;
+        try {
+            FileSystem fs = path_.getFileSystem(conf_);
+            if (! fs.exists(path_)) {
+                return null;
+            }
+            FSDataInputStream in = fs.open(path_);
+            try {
+                if (in.readInt() != VERSION) {
+                    return null;
+                }
+                long createdTime = in.readLong();
+                if (System.currentTimeMillis() - createdTime >= ttl_) {
+                    return null;
+                }
+                partitionInfoList = new GDPartitionInfo[in.readInt()];
+                for (int i = 0; i < partitionInfoList.length; i++) {
+                    partitionInfoList[i] = new GDPartitionInfo();
+                    partitionInfoList[i].readFields(in);
+                }
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            LOG.warn("Failed to read the split plan cache(" + path_ + ")", e);
+            return null;
+        }
+
+        if (partitionInfoList.length != controller.getPartitionCount()) {
+            return null;
+        }
+        for (int i = 0; i < partitionInfoList.length; i++) {
+            if (partitionInfoList[i].getContainerCount() != controller.getContainerCount(i)) {
+                return null;
+            }
+        }
+        return partitionInfoList;
+    }
+
+    /**
+     * <div lang="ja">
+     * パーティション毎の情報をキャッシュに書き込みます。書き込みに失敗した場合は警告を出力して処理を続行します。
+     * @param partitionInfoList パーティション毎の情報の配列
+     * </div><div lang="en">
+     * Store the information of each partition to the cache. If the cache cannot be written, a warning is logged and the processing continues.
+     * @param partitionInfoList array of the information of each partition
+     * </div>
+     */
+    void store(GDPartitionInfo[] partitionInfoList) {
+        Path tmpPath = new Path(path_.getParent(), "." + path_.getName() + "." + System.nanoTime());
+        try {
+            FileSystem fs = path_.getFileSystem(conf_);
+            FSDataOutputStream out = fs.create(tmpPath, true);
+            try {
+                out.writeInt(VERSION);
+                out.writeLong(System.currentTimeMillis());
+                out.writeInt(partitionInfoList.length);
+                for (GDPartitionInfo partitionInfo : partitionInfoList) {
+                    partitionInfo.write(out);
+                }
+            } finally {
+                out.close();
+            }
+            fs.delete(path_, false);
+            if (! fs.rename(tmpPath, path_)) {
+                fs.delete(tmpPath, false);
+            }
+        } catch (IOException e) {
+            LOG.warn("Failed to write the split plan cache(" + path_ + ")", e);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+   Copyright (c) 2016 TOSHIBA CORPORATION.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.toshiba.mwcloud.gs.hadoop.util;
+
+import static com.toshiba.mwcloud.gs.hadoop.conf.GDProperty.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.JobID;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.TaskID;
+
+import com.toshiba.mwcloud.gs.Container;
+import com.toshiba.mwcloud.gs.ContainerInfo;
+import com.toshiba.mwcloud.gs.GSException;
+import com.toshiba.mwcloud.gs.GridStore;
+import com.toshiba.mwcloud.gs.GridStoreFactory;
+import com.toshiba.mwcloud.gs.IndexInfo;
+import com.toshiba.mwcloud.gs.PartitionController;
+import com.toshiba.mwcloud.gs.Query;
+import com.toshiba.mwcloud.gs.Row;
+import com.toshiba.mwcloud.gs.RowSet;
+import com.toshiba.mwcloud.gs.TriggerInfo;
+import com.toshiba.mwcloud.gs.hadoop.conf.GDPropertyUtils;
+
+/**
+ * <div lang="ja">
+ * タスクの試行毎にロウデータを書き込むステージング用コンテナに関するユーティリティです。<br/>
+ * ステージング用コンテナの名前は、出力先のコンテナ名にジョブID、タスクの種別と番号、試行番号を付加したものです。
+ * </div><div lang="en">
+ * Utilities of staging containers to which row data is written for each task attempt.<br/>
+ * The name of a staging container is the output container name followed by the job ID, the task type and number and the attempt number.
+ * </div>
+ */
+public class GDStagingUtils {
+    private static final Log LOG = LogFactory.getLog(GDStagingUtils.class);
+
+    private GDStagingUtils() {
+    }
+
+    /**
+     * <div lang="ja">
+     * ステージング用コンテナを使用するかどうかを返します。
+     * @param conf Configurationオブジェクト
+     * @return ステージング用コンテナを使用する場合はtrue
+     * </div><div lang="en">
+     * Return whether staging containers are used.
+     * @param conf Configuration object
+     * @return true if staging containers are used
+     * </div>
+     */
+    public static boolean isStagingEnabled(Configuration conf) {
+        return Boolean.parseBoolean(GS_OUTPUT_STAGING.get(conf)) && GS_OUTPUT_CONTAINER_NAME.get(conf) != null;
+    }
+
+    /**
+     * <div lang="ja">
+     * 出力先のGridDBに接続したGridStoreオブジェクトを返します。
+     * @param conf Configurationオブジェクト
+     * @return GridStoreオブジェクト
+     * @throws GSException GridDBで例外が発生しました
+     * </div><div lang="en">
+     * Return the GridStore object connected to the output GridDB.
+     * @param conf Configuration object
+     * @return GridStore object
+     * @throws GSException an exception occurred in GridDB
+     * </div>
+     */
+    public static GridStore getGridStore(Configuration conf) throws GSException {
+        Properties prop = GDPropertyUtils.getGSProp(conf, GDPropertyUtils.getGSPropertiesToWrite());
+        return GridStoreFactory.getInstance().getGridStore(prop);
+    }
+
+    /**
+     * <div lang="ja">
+     * ジョブのステージング用コンテナの名前に共通する接頭辞を返します。
+     * @param containerName 出力先のコンテナ名
+     * @param jobId ジョブID
+     * @return コンテナ名の接頭辞
+     * </div><div lang="en">
+     * Return the prefix common to the names of staging containers of the job.
+     * @param containerName output container name
+     * @param jobId job ID
+     * @return prefix of container names
+     * </div>
+     */
+    public static String getStagingContainerPrefix(String containerName, JobID jobId) {
+        return containerName + "_" + jobId.toString() + "_";
+    }
+
+    /**
+     * <div lang="ja">
+     * タスクの試行に対応するステージング用コンテナの名前を返します。
+     * @param containerName 出力先のコンテナ名
+     * @param attemptId タスクの試行ID
+     * @return ステージング用コンテナの名前
+     * </div><div lang="en">
+     * Return the name of the staging container corresponding to the task attempt.
+     * @param containerName output container name
+     * @param attemptId task attempt ID
+     * @return name of staging container
+     * </div>
+     */
+    public static String getStagingContainerName(String containerName, TaskAttemptID attemptId) {
+        TaskID taskId = attemptId.getTaskID();
+        return getStagingContainerPrefix(containerName, attemptId.getJobID())
+                + TaskID.getRepresentingCharacter(taskId.getTaskType()) + "_" + taskId.getId() + "_" + attemptId.getId();
+    }
+
+    /**
+     * <div lang="ja">
+     * 出力先のコンテナと同じスキーマの空のステージング用コンテナを作成します。<br/>
+     * 同じ名前のコンテナが既に存在する場合は削除してから作成します。索引とトリガは作成しません。
+     * @param gridstore GridStoreオブジェクト
+     * @param containerInfo 出力先のコンテナ情報
+     * @param stagingName ステージング用コンテナの名前
+     * @throws GSException GridDBで例外が発生しました
+     * </div><div lang="en">
+     * Create an empty staging container with the same schema as the output container.<br/>
+     * If a container with the same name already exists, it is dropped before created. Indexes and triggers are not created.
+     * @param gridstore GridStore object
+     * @param containerInfo container information of output container
+     * @param stagingName name of staging container
+     * @throws GSException an exception occurred in GridDB
+     * </div>
+     */
+    public static void createStagingContainer(GridStore gridstore, ContainerInfo containerInfo, String stagingName) throws GSException {
+        ContainerInfo stagingInfo = new ContainerInfo(containerInfo);
+        stagingInfo.setName(stagingName);
+        stagingInfo.setIndexInfoList(new ArrayList<IndexInfo>());
+        stagingInfo.setTriggerInfoList(new ArrayList<TriggerInfo>());
+
+        gridstore.dropContainer(stagingName);
+        Container<Object, Row> container = gridstore.putContainer(stagingName, stagingInfo, false);
+        container.close();
+    }
+
+    /**
+     * <div lang="ja">
+     * ステージング用コンテナのロウデータを出力先のコンテナに書き込み、ステージング用コンテナを削除します。<br/>
+     * ロウキーのないコンテナには1つのトランザクションで書き込むため、出力先のコンテナはその間ロックされます。
+     * タスク毎の出力はgs.output.transaction.timeoutの期間内に書き込める量までにしてください。
+     * 書き込みに失敗した場合はトランザクションをアボートし、ステージング用コンテナは削除しません。<br/>
+     * ロウキーのあるコンテナへの書き込みは同じロウの上書きとなり再実行しても結果が変わらないため、batchSize毎にコミットします。<br/>
+     * 書き込みのコミット後にステージング用コンテナの削除に失敗した場合は、例外を通知せずにジョブの終了時の削除に任せます。
+     * @param gridstore GridStoreオブジェクト
+     * @param containerName 出力先のコンテナ名
+     * @param stagingName ステージング用コンテナの名前
+     * @param batchSize 1回に書き込むロウ数
+     * @throws GSException コンテナが存在しないか、GridDBで例外が発生しました
+     * </div><div lang="en">
+     * Write row data of the staging container to the output container and drop the staging container.<br/>
+     * Containers without a row key are written in one transaction, during which the output container is locked.
+     * Keep the output of each task small enough to be written within gs.output.transaction.timeout.
+     * If writing fails, the transaction is aborted and the staging container is not dropped.<br/>
+     * Writing to containers with a row key overwrites the same rows and gives the same result when retried, so it is committed every batchSize rows.<br/>
+     * If dropping the staging container fails after writing is committed, no exception is reported and it is left to be dropped when the job is finished.
+     * @param gridstore GridStore object
+     * @param containerName output container name
+     * @param stagingName name of staging container
+     * @param batchSize number of rows written at a time
+     * @throws GSException the container does not exist or an exception occurred in GridDB
+     * </div>
+     */
+    public static void promoteStagingContainer(GridStore gridstore, String containerName, String stagingName, int batchSize)
+            throws GSException {
+        ContainerInfo containerInfo = gridstore.getContainerInfo(containerName);
+        if (containerInfo == null) {
+            throw new GSException("Unknown container name(" + containerName + ")");
+        }
+        Container<Object, Row> staging = gridstore.getContainer(stagingName);
+        if (staging == null) {
+            throw new GSException("Unknown container name(" + stagingName + ")");
+        }
+        Container<Object, Row> container = null;
+        boolean committed = false;
+        try {
+            container = gridstore.getContainer(containerName);
+            container.setAutoCommit(false);
+
+            // Row objects are copied to rows of the output container and reused for each batch
+            int columnCount = containerInfo.getColumnCount();
+            List<Row> rowList = new ArrayList<Row>();
+            List<Row> freeRowList = new ArrayList<Row>();
+            Query<Row> query = staging.query("select *");
+            RowSet<Row> rowSet = query.fetch(false);
+            while (rowSet.hasNext()) {
+                Row stagingRow = rowSet.next();
+                Row row = freeRowList.isEmpty() ? gridstore.createRow(containerInfo) : freeRowList.remove(freeRowList.size() - 1);
+                for (int i = 0; i < columnCount; i++) {
+                    row.setValue(i, stagingRow.getValue(i));
+                }
+                rowList.add(row);
+                if (rowList.size() >= batchSize) {
+                    container.put(rowList);
+                    if (containerInfo.isRowKeyAssigned()) {
+                        container.commit();
+                    }
+                    freeRowList.addAll(rowList);
+                    rowList.clear();
+                }
+            }
+            if (! rowList.isEmpty()) {
+                container.put(rowList);
+            }
+            container.commit();
+            committed = true;
+        } finally {
+            try {
+                if (container != null) {
+                    try {
+                        if (! committed) {
+                            container.abort();
+                        }
+                    } finally {
+                        container.close();
+                    }
+                }
+            } finally {
+                staging.close();
+            }
+        }
+
+        // Rows are already committed, so a retry of the task must not promote them again
+        try {
+            gridstore.dropContainer(stagingName);
+        } catch (GSException e) {
+            LOG.warn("Failed to drop staging container(" + stagingName + ")", e);
+        }
+    }
+
+    /**
+     * <div lang="ja">
+     * 名前が指定した接頭辞で始まるステージング用コンテナを全て削除します。
+     * @param gridstore GridStoreオブジェクト
+     * @param prefix コンテナ名の接頭辞
+     * @throws GSException GridDBで例外が発生しました
+     * </div><div lang="en">
+     * Drop all staging containers whose names start with the specified prefix.
+     * @param gridstore GridStore object
+     * @param prefix prefix of container names
+     * @throws GSException an exception occurred in GridDB
+     * </div>
+     */
+    public static void dropStagingContainers(GridStore gridstore, String prefix) throws GSException {
+        List<String> stagingNameList = new ArrayList<String>();
+        PartitionController controller = gridstore.getPartitionController();
+        try {
+            for (int i = 0; i < controller.getPartitionCount(); i++) {
+                for (String name : controller.getContainerNames(i, 0, null)) {
+                    // Container names are case-insensitive
+                    if (name.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                        stagingNameList.add(name);
+                    }
+                }
+            }
+        } finally {
+            controller.close();
+        }
+        for (String stagingName : stagingNameList) {
+            gridstore.dropContainer(stagingName);
+        }
+    }
+}